@@ -283,6 +283,12 @@ const ProviderDashboard = () => {
                                 <Col sm={4} className="text-muted small fw-bold text-uppercase">Treatment</Col>
                                 <Col sm={8}>{selectedClaim.treatmentDescription || "General Care"}</Col>
                             </Row>
+                            {selectedClaim.adjudicationNote && (
+                                <Row className="mb-2">
+                                    <Col sm={4} className="text-muted small fw-bold text-uppercase">Adjudication</Col>
+                                    <Col sm={8}>{selectedClaim.adjudicationNote}</Col>
+                                </Row>
+                            )}
                             <hr/>
                             <Row className="align-items-center">
                                 <Col sm={4} className="text-muted small fw-bold text-uppercase">Total Bill Amount</Col>
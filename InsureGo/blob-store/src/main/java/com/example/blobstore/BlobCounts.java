@@ -0,0 +1,20 @@
+package com.example.blobstore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Reference counts behind a BlobStore, one row per hash in the owning service's blob table.
+// Called inside the caller's transaction.
+public interface BlobCounts {
+
+    // Insert with 1 or add 1; must row-lock the hash so a concurrent sweep waits for it
+    void retain(String hash, long size);
+
+    // Subtract 1 (never below 0)
+    void release(String hash);
+
+    // Hashes at 0 references since before the cutoff, row-locked until the transaction ends
+    List<String> lockUnreferenced(LocalDateTime cutoff);
+
+    void delete(String hash);
+}
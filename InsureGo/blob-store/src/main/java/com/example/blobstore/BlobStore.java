@@ -0,0 +1,120 @@
+package com.example.blobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+
+// Deduplicated file storage keyed by SHA-256: identical content shares one file on disk.
+// Layout: <root>/<aa>/<bb>/<hash>; owners store the reference "sha256/<aa>/<bb>/<hash>".
+// Every stored reference holds one count in BlobCounts; unreferenced blobs are swept after a grace period.
+// The single implementation behind claim-service documents and policy-service card images. Not transactional
+// itself: callers run put / release / sweep in a transaction so the counts and the row locks hold.
+public class BlobStore {
+
+    public static final String PREFIX = "sha256/";
+
+    private final Path root;
+    private final Path incoming;
+    private final BlobCounts counts;
+
+    public BlobStore(Path root, BlobCounts counts) {
+        this.root = root;
+        this.incoming = root.resolve(".incoming");
+        this.counts = counts;
+    }
+
+    // Streams the content to a temp file while hashing it, then keeps one copy per hash.
+    // Returns the reference to save on the owning record (counted once).
+    public String put(InputStream in) throws IOException {
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "blob", ".tmp");
+        MessageDigest digest = newSha256();
+        try (ReadableByteChannel src = Channels.newChannel(in);
+             FileChannel dst = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            while (src.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) dst.write(buffer);
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return adopt(temp, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // Takes ownership of a file whose SHA-256 is already known (e.g. a verified chunked upload)
+    public String putFile(Path file, String sha256) throws IOException {
+        return adopt(file, sha256.toLowerCase(Locale.ROOT));
+    }
+
+    // Drops one reference (no-op for legacy or placeholder references); the file goes in a later sweep
+    public void release(String reference) {
+        String hash = hashOf(reference);
+        if (hash != null) counts.release(hash);
+    }
+
+    public Path resolve(String reference) {
+        String hash = hashOf(reference);
+        return hash == null ? null : pathFor(hash);
+    }
+
+    // Deletes blobs nobody has referenced since the cutoff; returns how many went
+    public int sweepUnreferenced(LocalDateTime cutoff) throws IOException {
+        // Row locks make a concurrent retain() of the same hash wait until the file is gone, then re-create both
+        int swept = 0;
+        for (String hash : counts.lockUnreferenced(cutoff)) {
+            Files.deleteIfExists(pathFor(hash));
+            counts.delete(hash);
+            swept++;
+        }
+        return swept;
+    }
+
+    // null for legacy (non content-addressed) paths and placeholders
+    public static String hashOf(String reference) {
+        if (reference == null || !reference.startsWith(PREFIX)) return null;
+        String hash = reference.substring(reference.lastIndexOf('/') + 1);
+        return hash.matches("[0-9a-f]{64}") ? hash : null;
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String adopt(Path file, String hash) throws IOException {
+        // Count first: this row-locks the hash, so the sweeper cannot delete the blob under us
+        counts.retain(hash, Files.size(file));
+
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            Files.delete(file); // already stored, nothing more to write
+        } else {
+            Files.createDirectories(target.getParent());
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return PREFIX + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
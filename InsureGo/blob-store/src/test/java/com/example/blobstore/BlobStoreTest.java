@@ -0,0 +1,66 @@
+package com.example.blobstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobStoreTest {
+
+	// Counts in a map; "unreferenced" ignores the grace period
+	private static class Counts implements BlobCounts {
+		final Map<String, Integer> refs = new ConcurrentHashMap<>();
+
+		@Override public void retain(String hash, long size) { refs.merge(hash, 1, Integer::sum); }
+		@Override public void release(String hash) { refs.computeIfPresent(hash, (h, n) -> Math.max(0, n - 1)); }
+		@Override public List<String> lockUnreferenced(LocalDateTime cutoff) {
+			return refs.entrySet().stream().filter(e -> e.getValue() == 0).map(Map.Entry::getKey).toList();
+		}
+		@Override public void delete(String hash) { refs.remove(hash); }
+	}
+
+	private static ByteArrayInputStream content(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void storesIdenticalContentOnceAndSweepsItAfterTheLastRelease(@TempDir Path root) throws Exception {
+		Counts counts = new Counts();
+		BlobStore store = new BlobStore(root.resolve("sha256"), counts);
+
+		String first = store.put(content("scan"));
+		String second = store.put(content("scan"));
+		assertThat(second).isEqualTo(first).startsWith(BlobStore.PREFIX);
+		String hash = BlobStore.hashOf(first);
+		assertThat(counts.refs).containsEntry(hash, 2);
+		assertThat(Files.readString(store.resolve(first))).isEqualTo("scan");
+		assertThat(Files.list(root.resolve("sha256").resolve(".incoming"))).isEmpty();
+
+		store.release(first);
+		assertThat(store.sweepUnreferenced(LocalDateTime.now())).isZero();
+		store.release(second);
+		assertThat(store.sweepUnreferenced(LocalDateTime.now())).isEqualTo(1);
+		assertThat(store.resolve(first)).doesNotExist();
+		assertThat(counts.refs).doesNotContainKey(hash);
+	}
+
+	@Test
+	void ignoresReferencesThatAreNotContentAddressed() {
+		Counts counts = new Counts();
+		BlobStore store = new BlobStore(Path.of("unused"), counts);
+		store.release("uploads/legacy-card.png");
+		store.release(null);
+		assertThat(BlobStore.hashOf("sha256/ab/cd/not-a-hash")).isNull();
+		assertThat(store.resolve("uploads/legacy-card.png")).isNull();
+		assertThat(counts.refs).isEmpty();
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+
+// Per-provider claim adjudication settings. Providers without a row use AdjudicationPolicy.defaults().
+@Entity
+@Table(name = "adjudication_policies")
+public class AdjudicationPolicy {
+
+    public static final String DEFAULT_RULE_CHAIN = "APPROVE_BELOW:500";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String insuranceProvider;
+
+    // Share of the (post-deductible) bill the insurer pays on approval, e.g. 0.80 for an 80/20 split
+    private double insuranceShare = 0.80;
+
+    // Amount the patient always pays before the split applies
+    private double deductible = 0.0;
+
+    // Ordered, comma separated "KIND:amount" rules; first match wins, no match -> manual review.
+    // KIND is APPROVE_BELOW, REVIEW_FROM or REJECT_ABOVE. Example: "REJECT_ABOVE:100000,APPROVE_BELOW:500"
+    @Column(length = 500)
+    private String ruleChain = DEFAULT_RULE_CHAIN;
+
+    public AdjudicationPolicy() {}
+
+    public static AdjudicationPolicy defaults(String insuranceProvider) {
+        AdjudicationPolicy policy = new AdjudicationPolicy();
+        policy.setInsuranceProvider(insuranceProvider);
+        return policy;
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getInsuranceProvider() { return insuranceProvider; }
+    public void setInsuranceProvider(String insuranceProvider) { this.insuranceProvider = insuranceProvider; }
+    public double getInsuranceShare() { return insuranceShare; }
+    public void setInsuranceShare(double insuranceShare) { this.insuranceShare = insuranceShare; }
+    public double getDeductible() { return deductible; }
+    public void setDeductible(double deductible) { this.deductible = deductible; }
+    public String getRuleChain() { return ruleChain; }
+    public void setRuleChain(String ruleChain) { this.ruleChain = ruleChain; }
+}
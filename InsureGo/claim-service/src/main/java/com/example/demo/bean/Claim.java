@@ -4,11 +4,26 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name="claims")
+@Table(name="claims", indexes = {
+    // Doctor updates and document uploads look up the open claim for a policy
+    @Index(name = "idx_claims_policy_status", columnList = "policy_no, status"),
+    // Keyset paging of a provider's claims (WHERE insurance_provider = ? AND claim_id > ? ORDER BY claim_id)
+    @Index(name = "idx_claims_provider_id", columnList = "insurance_provider, claim_id"),
+    // Fallback for duplicate checks the in-memory detector cannot settle
+    @Index(name = "idx_claims_duplicate", columnList = "policy_no, date_filed, total_bill_amount"),
+    // Settlement run: approved claims not settled yet, then a settlement's claims per provider
+    @Index(name = "idx_claims_unsettled", columnList = "status, settlement_id, claim_id"),
+    @Index(name = "idx_claims_settlement", columnList = "settlement_id, insurance_provider")
+})
 public class Claim {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (a 'claim_seq' table on MySQL) instead of IDENTITY so inserts can be JDBC-batched.
+    // ClaimIdSequenceAligner moves the sequence past ids handed out by the old AUTO_INCREMENT column.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_seq")
+    @SequenceGenerator(name = "claim_seq", sequenceName = "claim_seq", allocationSize = Claim.ID_ALLOCATION_SIZE)
     private Long claimId;
 
     private Long userId;        
@@ -33,6 +48,31 @@ public class Claim {
     private String medicalDocumentPath; 
     private String insuranceProvider;
     private String patientName; 
+
+    // Settlement run that paid out this (APPROVED) claim; null while unsettled
+    private Long settlementId;
+
+    // Anomaly score from ClaimRiskScorer when the bill was submitted (largest z-score, 0 = nothing unusual)
+    private Double riskScore;
+
+    // Outcome of the latest adjudication, e.g. "Auto-Approved < $500"; overwritten when the claim is re-adjudicated
+    private String adjudicationNote;
+
+    // Optimistic lock: a save based on a stale read fails instead of overwriting another reviewer's change
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // State as last read from / written to the DB (null for a claim that was never persisted)
+    @Transient
+    private ClaimState persistedState;
+
+    @PostLoad
+    void capturePersistedState() { this.persistedState = ClaimState.of(this); }
+
+    // Not bean-style getters on purpose: these must not show up in the JSON payload
+    public ClaimState persistedState() { return persistedState; }
+    public void markPersisted(ClaimState state) { this.persistedState = state; }
     
     public String getPatientName() {
 		return patientName;
@@ -91,4 +131,14 @@ public class Claim {
 
     public LocalDate getDateFiled() { return dateFiled; }
     public void setDateFiled(LocalDate dateFiled) { this.dateFiled = dateFiled; }
+
+    public Long getSettlementId() { return settlementId; }
+
+    public Double getRiskScore() { return riskScore; }
+    public void setRiskScore(Double riskScore) { this.riskScore = riskScore; }
+
+    public String getAdjudicationNote() { return adjudicationNote; }
+    public void setAdjudicationNote(String adjudicationNote) { this.adjudicationNote = adjudicationNote; }
+
+    public long getVersion() { return version; }
 }
\ No newline at end of file
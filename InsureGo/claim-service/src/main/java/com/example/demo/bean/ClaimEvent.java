@@ -0,0 +1,69 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One immutable entry of a claim's history. Events carry the claim's status and amounts *after*
+// the change, so the state at any seq is the state of that event (see ClaimEventLog.replay).
+@Entity
+@Table(name = "claim_events", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_claim_events_claim_seq", columnNames = {"claim_id", "seq"})
+})
+public class ClaimEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_event_seq")
+    @SequenceGenerator(name = "claim_event_seq", sequenceName = "claim_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "claim_id", nullable = false, updatable = false)
+    private Long claimId;
+
+    // 1, 2, 3, ... per claim
+    @Column(nullable = false, updatable = false)
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32, updatable = false)
+    private ClaimEventType type;
+
+    @Column(updatable = false) private String fromStatus;
+    @Column(updatable = false) private String toStatus;
+    @Column(updatable = false) private Double totalBillAmount;
+    @Column(updatable = false) private Double insurancePays;
+    @Column(updatable = false) private Double userPays;
+    @Column(updatable = false) private String actor;
+
+    @Column(length = 1000, updatable = false)
+    private String notes;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public ClaimEvent() {}
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public Long getClaimId() { return claimId; }
+    public void setClaimId(Long claimId) { this.claimId = claimId; }
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+    public ClaimEventType getType() { return type; }
+    public void setType(ClaimEventType type) { this.type = type; }
+    public String getFromStatus() { return fromStatus; }
+    public void setFromStatus(String fromStatus) { this.fromStatus = fromStatus; }
+    public String getToStatus() { return toStatus; }
+    public void setToStatus(String toStatus) { this.toStatus = toStatus; }
+    public Double getTotalBillAmount() { return totalBillAmount; }
+    public void setTotalBillAmount(Double totalBillAmount) { this.totalBillAmount = totalBillAmount; }
+    public Double getInsurancePays() { return insurancePays; }
+    public void setInsurancePays(Double insurancePays) { this.insurancePays = insurancePays; }
+    public Double getUserPays() { return userPays; }
+    public void setUserPays(Double userPays) { this.userPays = userPays; }
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
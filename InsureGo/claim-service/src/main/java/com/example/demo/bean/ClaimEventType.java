@@ -0,0 +1,11 @@
+package com.example.demo.bean;
+
+// Kinds of entries in the claim_events log
+public enum ClaimEventType {
+    CREATED,
+    STATUS_CHANGED,
+    BILL_UPDATED,
+    DOCUMENT_ATTACHED,
+    NOTE_ADDED,
+    UPDATED
+}
@@ -0,0 +1,53 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Folded state of a claim's event log up to lastSeq. Kept current on every append so the head
+// state (and the next seq number) never needs a scan of claim_events.
+@Entity
+@Table(name = "claim_snapshots")
+public class ClaimSnapshot {
+
+    @Id
+    private Long claimId;
+
+    private long lastSeq;
+    private String status;
+    private Double totalBillAmount;
+    private Double insurancePays;
+    private Double userPays;
+    private LocalDateTime updatedAt;
+
+    public ClaimSnapshot() {}
+
+    public ClaimSnapshot(Long claimId) {
+        this.claimId = claimId;
+    }
+
+    // Applies one event on top of this state
+    public void apply(ClaimEvent event) {
+        this.lastSeq = event.getSeq();
+        this.status = event.getToStatus();
+        this.totalBillAmount = event.getTotalBillAmount();
+        this.insurancePays = event.getInsurancePays();
+        this.userPays = event.getUserPays();
+        this.updatedAt = event.getCreatedAt();
+    }
+
+    // --- Getters and Setters ---
+    public Long getClaimId() { return claimId; }
+    public void setClaimId(Long claimId) { this.claimId = claimId; }
+    public long getLastSeq() { return lastSeq; }
+    public void setLastSeq(long lastSeq) { this.lastSeq = lastSeq; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Double getTotalBillAmount() { return totalBillAmount; }
+    public void setTotalBillAmount(Double totalBillAmount) { this.totalBillAmount = totalBillAmount; }
+    public Double getInsurancePays() { return insurancePays; }
+    public void setInsurancePays(Double insurancePays) { this.insurancePays = insurancePays; }
+    public Double getUserPays() { return userPays; }
+    public void setUserPays(Double userPays) { this.userPays = userPays; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
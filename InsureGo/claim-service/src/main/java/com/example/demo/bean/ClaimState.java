@@ -0,0 +1,53 @@
+package com.example.demo.bean;
+
+import java.time.LocalDate;
+
+// Immutable copy of the Claim fields that the in-memory views (metrics, stats, ...) are keyed on.
+// A Claim remembers the state it was loaded/saved with so a write can be published as before -> after.
+public final class ClaimState {
+
+    private final Long claimId;
+    private final String policyNo;
+    private final String insuranceProvider;
+    private final Long doctorId;
+    private final String doctorName;
+    private final String status;
+    private final double totalBillAmount;
+    private final double insurancePays;
+    private final LocalDate dateFiled;
+    private final String patientName;
+    private final String treatmentDescription;
+    private final Double riskScore;
+
+    private ClaimState(Claim claim) {
+        this.claimId = claim.getClaimId();
+        this.policyNo = claim.getPolicyNo();
+        this.insuranceProvider = claim.getInsuranceProvider();
+        this.doctorId = claim.getDoctorId();
+        this.doctorName = claim.getDoctorName();
+        this.status = claim.getStatus();
+        this.totalBillAmount = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
+        this.insurancePays = claim.getInsurancePays() != null ? claim.getInsurancePays() : 0.0;
+        this.dateFiled = claim.getDateFiled();
+        this.patientName = claim.getPatientName();
+        this.treatmentDescription = claim.getTreatmentDescription();
+        this.riskScore = claim.getRiskScore();
+    }
+
+    public static ClaimState of(Claim claim) {
+        return new ClaimState(claim);
+    }
+
+    public Long getClaimId() { return claimId; }
+    public String getPolicyNo() { return policyNo; }
+    public String getInsuranceProvider() { return insuranceProvider; }
+    public Long getDoctorId() { return doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public String getStatus() { return status; }
+    public double getTotalBillAmount() { return totalBillAmount; }
+    public double getInsurancePays() { return insurancePays; }
+    public LocalDate getDateFiled() { return dateFiled; }
+    public String getPatientName() { return patientName; }
+    public String getTreatmentDescription() { return treatmentDescription; }
+    public Double getRiskScore() { return riskScore; }
+}
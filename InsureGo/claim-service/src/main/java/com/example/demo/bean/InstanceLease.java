@@ -0,0 +1,36 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Which node currently is the claim-service instance (see ClaimInstanceLease); one row per lease name
+@Entity
+@Table(name = "claim_instance_lease")
+public class InstanceLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 255)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Only so a new row is inserted, never merged over a lease another node just created
+    @Version
+    private Long version;
+
+    public InstanceLease() {}
+
+    public InstanceLease(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getName() { return name; }
+    public String getOwner() { return owner; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One settlement run. Claims join it by getting its id in claims.settlement_id; its totals and
+// SettlementLine rows are written once, together with status COMPLETED, and never change afterwards.
+@Entity
+@Table(name = "settlements")
+public class Settlement {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Business key of the run (e.g. the settlement date); a key is settled at most once
+    @Column(unique = true, nullable = false, updatable = false, length = 64)
+    private String runKey;
+
+    // Only claims up to this id belong to the run, so a restarted run settles the same population
+    @Column(nullable = false, updatable = false)
+    private long cutoffClaimId;
+
+    @Column(nullable = false, length = 16)
+    private String status = RUNNING;
+
+    private long claimCount;
+    private double totalBilled;
+    private double totalInsurancePays;
+    private double totalUserPays;
+
+    @Column(updatable = false)
+    private LocalDateTime startedAt = LocalDateTime.now();
+    private LocalDateTime completedAt;
+
+    @Version
+    private long version;
+
+    public Settlement() {}
+
+    public Settlement(String runKey, long cutoffClaimId) {
+        this.runKey = runKey;
+        this.cutoffClaimId = cutoffClaimId;
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public String getRunKey() { return runKey; }
+    public long getCutoffClaimId() { return cutoffClaimId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getClaimCount() { return claimCount; }
+    public void setClaimCount(long claimCount) { this.claimCount = claimCount; }
+    public double getTotalBilled() { return totalBilled; }
+    public void setTotalBilled(double totalBilled) { this.totalBilled = totalBilled; }
+    public double getTotalInsurancePays() { return totalInsurancePays; }
+    public void setTotalInsurancePays(double totalInsurancePays) { this.totalInsurancePays = totalInsurancePays; }
+    public double getTotalUserPays() { return totalUserPays; }
+    public void setTotalUserPays(double totalUserPays) { this.totalUserPays = totalUserPays; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
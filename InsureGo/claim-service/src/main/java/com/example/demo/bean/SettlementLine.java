@@ -0,0 +1,57 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+// Immutable ledger line of a settlement: what one provider owes for one doctor's claims.
+// The provider's total is the line with doctorId and doctorName both null.
+@Entity
+@Immutable
+@Table(name = "settlement_lines", indexes = {
+    @Index(name = "idx_settlement_lines_settlement", columnList = "settlement_id, insurance_provider")
+})
+public class SettlementLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_line_seq")
+    @SequenceGenerator(name = "settlement_line_seq", sequenceName = "settlement_line_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "settlement_id", nullable = false)
+    private Long settlementId;
+
+    @Column(name = "insurance_provider")
+    private String insuranceProvider;
+
+    private Long doctorId;
+    private String doctorName;
+    private long claimCount;
+    private double totalBilled;
+    private double insurancePays;
+    private double userPays;
+
+    public SettlementLine() {}
+
+    public SettlementLine(Long settlementId, String insuranceProvider, Long doctorId, String doctorName,
+                          long claimCount, double totalBilled, double insurancePays, double userPays) {
+        this.settlementId = settlementId;
+        this.insuranceProvider = insuranceProvider;
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.claimCount = claimCount;
+        this.totalBilled = totalBilled;
+        this.insurancePays = insurancePays;
+        this.userPays = userPays;
+    }
+
+    // --- Getters ---
+    public Long getId() { return id; }
+    public Long getSettlementId() { return settlementId; }
+    public String getInsuranceProvider() { return insuranceProvider; }
+    public Long getDoctorId() { return doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public long getClaimCount() { return claimCount; }
+    public double getTotalBilled() { return totalBilled; }
+    public double getInsurancePays() { return insurancePays; }
+    public double getUserPays() { return userPays; }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import com.example.demo.bean.Claim;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Claim ids used to come from AUTO_INCREMENT; they now come from the pooled 'claim_seq' table.
+// The pooled optimizer hands out (next_val - allocationSize, next_val], so before the first insert
+// make sure that whole block lies above the highest existing claim_id.
+@Component
+public class ClaimIdSequenceAligner implements SmartLifecycle {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(claim_id), 0) FROM claims", Long.class);
+        long floor = maxId + Claim.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update("UPDATE claim_seq SET next_val = ? WHERE next_val < ?", floor, floor);
+        if (updated > 0) {
+            System.out.println("claim_seq moved to " + floor + " (max claim_id " + maxId + ")");
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Before ClaimViewWarmup and the web server
+    @Override
+    public int getPhase() { return -1; }
+}
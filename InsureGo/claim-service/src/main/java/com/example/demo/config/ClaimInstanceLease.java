@@ -0,0 +1,101 @@
+package com.example.demo.config;
+
+import com.example.demo.bean.InstanceLease;
+import com.example.demo.repository.InstanceLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// claim-service runs as ONE active instance. Its views (provider metrics, doctor stats, search index,
+// analytics, histogram, risk profiles, duplicate screen, review queue) live in memory, are rebuilt from
+// the claims table on start and then follow the claim writes of this JVM only, so a second instance
+// taking writes would leave both with partial views. This lease row enforces it: an instance that
+// cannot take the lease refuses to start (a standby can start once the holder stops or its lease runs
+// out), and an instance that loses it shuts down.
+@Component
+public class ClaimInstanceLease implements SmartLifecycle {
+
+    static final String LEASE_NAME = "claim-service";
+
+    @Autowired private InstanceLeaseRepository repository;
+    @Autowired private ConfigurableApplicationContext context;
+
+    @Value("${claim.instance.lease-ms:30000}")
+    private long leaseMs = 30000;
+    @Value("${server.port:8080}")
+    private int port = 8080;
+
+    private String owner;
+    private volatile boolean held;
+
+    @Override
+    public void start() {
+        owner = hostName() + ":" + port + ":" + UUID.randomUUID().toString().substring(0, 8);
+        if (!tryAcquire()) {
+            InstanceLease current = repository.findById(LEASE_NAME).orElse(null);
+            throw new IllegalStateException("Another claim-service instance is running ("
+                + (current != null ? current.getOwner() + ", lease until " + current.getExpiresAt() : "lease just taken")
+                + "); claim-service must run as a single instance");
+        }
+        held = true;
+        System.out.println("claim-service instance lease taken by " + owner);
+    }
+
+    // Well inside the lease time, so a slow renewal does not let a standby in
+    @Scheduled(fixedDelayString = "${claim.instance.renew-ms:10000}")
+    public void renew() {
+        if (!held || tryAcquire()) return;
+        held = false;
+        System.err.println("claim-service instance lease lost to another node; shutting down " + owner);
+        new Thread(() -> System.exit(SpringApplication.exit(context, () -> 1)), "claim-instance-lease-lost").start();
+    }
+
+    // Whether this node is the claim-service instance (false only between losing the lease and shutting down)
+    public boolean isHeld() {
+        return held;
+    }
+
+    boolean tryAcquire() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(leaseMs * 1_000_000L);
+        if (repository.acquire(LEASE_NAME, owner, now, expiresAt) == 1) return true;
+        if (repository.existsById(LEASE_NAME)) return false;
+        try {
+            repository.saveAndFlush(new InstanceLease(LEASE_NAME, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // another instance created it first
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (held) repository.release(LEASE_NAME, owner, LocalDateTime.now());
+        held = false;
+    }
+
+    @Override
+    public boolean isRunning() { return held; }
+
+    // First of all: before the sequence aligner, the view warmup and the web server
+    @Override
+    public int getPhase() { return -2; }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.repository.ClaimRepository;
+import com.example.demo.service.ClaimChangeListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+// Rebuilds every ClaimChangeListener (metrics, stats, review queue, search index, ...) from the claims table on startup.
+// Runs as a SmartLifecycle in an early phase so the views are complete before the web server accepts requests.
+@Component
+public class ClaimViewWarmup implements SmartLifecycle {
+
+    @Autowired private ClaimRepository claimRepository;
+    @Autowired private List<ClaimChangeListener> listeners;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @PersistenceContext private EntityManager entityManager;
+
+    private static final int REPLAY_CHUNK = 5000;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        long started = System.currentTimeMillis();
+        listeners.forEach(ClaimChangeListener::clear);
+
+        // Rows are read on one cursor; replay runs on the common pool in chunks, since listeners
+        // are thread-safe already (they are notified from concurrent request threads).
+        // The semaphore bounds how many read-ahead chunks sit in memory.
+        Semaphore inFlight = new Semaphore(ForkJoinPool.getCommonPoolParallelism() * 2);
+        List<CompletableFuture<Void>> replays = new ArrayList<>();
+        long rows = transactionTemplate.execute(status -> {
+            long count = 0;
+            List<ClaimState> chunk = new ArrayList<>(REPLAY_CHUNK);
+            try (Stream<Claim> claims = claimRepository.streamAllByOrderByClaimIdAsc()) {
+                for (Iterator<Claim> it = claims.iterator(); it.hasNext(); count++) {
+                    Claim claim = it.next();
+                    chunk.add(ClaimState.of(claim));
+                    entityManager.detach(claim);
+                    if (chunk.size() == REPLAY_CHUNK) {
+                        replays.add(replayAsync(chunk, inFlight));
+                        chunk = new ArrayList<>(REPLAY_CHUNK);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) replays.add(replayAsync(chunk, inFlight));
+            return count;
+        });
+        CompletableFuture.allOf(replays.toArray(CompletableFuture<?>[]::new)).join();
+
+        System.out.println("Claim views rebuilt from " + rows + " claims in " + (System.currentTimeMillis() - started) + " ms");
+        running = true;
+    }
+
+    private CompletableFuture<Void> replayAsync(List<ClaimState> chunk, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                chunk.parallelStream().forEach(state -> {
+                    for (ClaimChangeListener listener : listeners) listener.onClaimChanged(null, state);
+                });
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Before the embedded web server (which starts near Integer.MAX_VALUE)
+    @Override
+    public int getPhase() { return 0; }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.controller;
+
+import com.example.demo.bean.AdjudicationPolicy;
+import com.example.demo.repository.AdjudicationPolicyRepository;
+import com.example.demo.service.AdjudicationEngine;
+import com.example.demo.service.AdjudicationRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/claim/adjudication")
+public class AdjudicationController {
+
+    @Autowired private AdjudicationPolicyRepository policyRepository;
+    @Autowired private AdjudicationEngine adjudicationEngine;
+
+    // 1. GET PROVIDER RULES (falls back to the platform defaults)
+    @GetMapping("/{providerName}")
+    public AdjudicationPolicy getPolicy(@PathVariable String providerName) {
+        return policyRepository.findByInsuranceProvider(providerName)
+            .orElseGet(() -> AdjudicationPolicy.defaults(providerName));
+    }
+
+    // 2. CREATE / UPDATE PROVIDER RULES (validated by compiling, live on this node immediately)
+    @PutMapping("/{providerName}")
+    public ResponseEntity<?> savePolicy(@PathVariable String providerName, @RequestBody AdjudicationPolicy details) {
+        details.setInsuranceProvider(providerName);
+        try {
+            AdjudicationRules.compile(details);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        AdjudicationPolicy policy = policyRepository.findByInsuranceProvider(providerName)
+            .orElseGet(() -> AdjudicationPolicy.defaults(providerName));
+        policy.setInsuranceShare(details.getInsuranceShare());
+        policy.setDeductible(details.getDeductible());
+        policy.setRuleChain(details.getRuleChain());
+        AdjudicationPolicy saved = policyRepository.save(policy);
+
+        adjudicationEngine.reload();
+        return ResponseEntity.ok(saved);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AnalyticsGroup;
+import com.example.demo.service.ClaimAnalyticsStore;
+import com.example.demo.service.ClaimAnalyticsStore.GroupBy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Dashboard breakdowns served from the in-memory columnar store (no entity reads).
+// ?provider= narrows to one insurance provider, ?from= / ?to= (yyyy-MM-dd, inclusive) to a filing period.
+@RestController
+@RequestMapping("/claim/analytics")
+public class ClaimAnalyticsController {
+
+    @Autowired private ClaimAnalyticsStore analyticsStore;
+
+    // 1. CLAIMS BY STATUS
+    @GetMapping("/by-status")
+    public List<AnalyticsGroup> byStatus(
+        @RequestParam(required = false) String provider,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return analyticsStore.groupBy(GroupBy.STATUS, provider, from, to);
+    }
+
+    // 2. CLAIMS BY DOCTOR (highest billed first)
+    @GetMapping("/by-doctor")
+    public List<AnalyticsGroup> byDoctor(
+        @RequestParam(required = false) String provider,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return analyticsStore.groupBy(GroupBy.DOCTOR, provider, from, to);
+    }
+
+    // 3. CLAIMS BY FILING MONTH (yyyy-MM, chronological)
+    @GetMapping("/by-month")
+    public List<AnalyticsGroup> byMonth(
+        @RequestParam(required = false) String provider,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return analyticsStore.groupBy(GroupBy.MONTH, provider, from, to);
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.demo.controller;
 
 import com.example.demo.bean.Claim;
+import com.example.demo.dto.BulkVerdictRequest;
+import com.example.demo.dto.ClaimPage;
+import com.example.demo.dto.UploadSession;
 import com.example.demo.repository.ClaimRepository;
+import com.example.demo.service.AdjudicationEngine;
+import com.example.demo.service.ClaimConflictException;
+import com.example.demo.service.ClaimHistogramStore;
+import com.example.demo.service.ClaimRiskScorer;
 import com.example.demo.service.ClaimService;
+import com.example.demo.service.DoctorStatsStore;
+import com.example.demo.service.DuplicateClaimDetector;
+import com.example.demo.service.MedicalDocumentStorage;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,136 +34,117 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/claim")
 public class ClaimController {
+
+    // Paged list endpoints keep returning a JSON array; the cursor for the next page travels in this header
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 	
     @Autowired ClaimService claimService;
     @Autowired private ClaimRepository claimRepository;
+    @Autowired private DoctorStatsStore doctorStatsStore;
+    @Autowired private AdjudicationEngine adjudicationEngine;
+    @Autowired private DuplicateClaimDetector duplicateClaimDetector;
+    @Autowired private MedicalDocumentStorage documentStorage;
+    @Autowired private ClaimHistogramStore histogramStore;
+    @Autowired private ClaimRiskScorer riskScorer;
 
     // 🟢 1. INITIATE CLAIM (Uses doctorName from Bean + Fixes Revenue)
     @PostMapping("/initiate")
     public ResponseEntity<Claim> initiateClaim(@RequestBody Claim claim) {
-        
-        // 1. Set Date if missing
-        if (claim.getDateFiled() == null) {
-            claim.setDateFiled(LocalDate.now());
-        }
+        return ResponseEntity.ok(claimService.initiate(claim));
+    }
 
-        // 2. CHECK: Is this a Doctor Submission? (Amount > 0)
-        Double amount = claim.getTotalBillAmount();
-        
-        if (amount != null && amount > 0) {
-            
-            // 🟢 MATH FIX: Calculate 80/20 Split Immediately
-            double insurancePart = amount * 0.80;
-            double userPart = amount * 0.20;
-
-            claim.setInsurancePays(insurancePart); 
-            claim.setUserPays(userPart); // 🟢 This saves the user cost!
-
-            // Rule: Auto-Approve < $500
-            if (amount < 500) {
-                claim.setStatus("APPROVED");
-                String desc = claim.getTreatmentDescription() != null ? claim.getTreatmentDescription() : "Claim";
-                claim.setTreatmentDescription(desc + " (Auto-Approved < $500)");
-            } else {
-                // High Value -> Pending Provider Action
-                claim.setStatus("PENDING_APPROVAL"); 
-                // Reset split for manual review (optional, or keep the calc)
-                claim.setInsurancePays(0.0);
-                claim.setUserPays(0.0);
-            }
-            
-        } else {
-            // 3. PATIENT INITIALIZATION (Empty Claim)
-            // Only set defaults if the frontend didn't send them
-            if (claim.getStatus() == null) claim.setStatus("OPEN");
-            if (claim.getTotalBillAmount() == null) claim.setTotalBillAmount(0.0);
-            if (claim.getInsurancePays() == null) claim.setInsurancePays(0.0);
-            if (claim.getUserPays() == null) claim.setUserPays(0.0);
-            
-            if (claim.getTreatmentDescription() == null) {
-                claim.setTreatmentDescription("Pending Doctor Input");
-            }
+    // 1b. BATCH INITIATE (end-of-day hospital files; one result per submitted claim, in order)
+    @PostMapping("/initiate/batch")
+    public ResponseEntity<?> initiateClaims(@RequestBody List<Claim> claims) {
+        if (claims.size() > ClaimService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("Batch too large (max " + ClaimService.MAX_BATCH_SIZE + " claims)");
         }
-
-        // 🟢 SAVE: This will now save 'doctorName' because it's in your Bean!
-        return ResponseEntity.ok(claimRepository.save(claim));
+        return ResponseEntity.ok(claimService.initiateBatch(claims));
     }
 
     // 2. DOCTOR UPDATE (For existing 'OPEN' claims)
     @PutMapping("/doctor-update/{policyNo}")
     public ResponseEntity<?> addMedicalDetails(@PathVariable String policyNo, @RequestBody Claim doctorEntry) {
-        Optional<Claim> existingClaim = claimRepository.findAll().stream()
-            .filter(c -> c.getPolicyNo().equals(policyNo) && c.getStatus().equals("OPEN"))
-            .findFirst();
+        Optional<Claim> existingClaim = claimRepository.findFirstByPolicyNoAndStatusOrderByClaimIdAsc(policyNo, "OPEN");
 
         if (existingClaim.isPresent()) {
-            Claim claim = existingClaim.get();
+            Long claimId = existingClaim.get().getClaimId();
             Double billAmount = doctorEntry.getTotalBillAmount();
 
             // Duplicate Check
-            boolean isDuplicate = claimRepository.existsByPolicyNoAndTotalBillAmountAndDateFiled(
-                policyNo, billAmount, LocalDate.now()
-            );
-
-            if (isDuplicate) {
-                claim.setStatus("REJECTED");
-                claim.setTreatmentDescription("System Auto-Rejection: Duplicate Claim Detected");
-                claim.setTotalBillAmount(billAmount);
-                return ResponseEntity.ok(claimRepository.save(claim));
-            }
+            boolean isDuplicate = duplicateClaimDetector.isDuplicate(policyNo, billAmount, LocalDate.now());
 
-            // Update Fields from Payload
-            claim.setInsuranceProvider(doctorEntry.getInsuranceProvider());
-            claim.setPatientName(doctorEntry.getPatientName());
-            
-            // 🟢 Update Doctor Details (Since Bean has them now)
-            claim.setDoctorId(doctorEntry.getDoctorId()); 
-            claim.setDoctorName(doctorEntry.getDoctorName());
-            
-            claim.setTotalBillAmount(billAmount);
-            claim.setTreatmentDescription(doctorEntry.getTreatmentDescription());
-
-            // 🟢 80/20 Logic for Update
-            if (billAmount != null) {
-                if (billAmount < 500) { 
-                    claim.setStatus("APPROVED"); 
-                    claim.setInsurancePays(billAmount * 0.80);
-                    claim.setUserPays(billAmount * 0.20);
-                    claim.setTreatmentDescription(claim.getTreatmentDescription() + " (Auto-Approved < $500)");
-                } else {
-                    claim.setStatus("PENDING_APPROVAL"); 
-                    claim.setInsurancePays(0.0);
-                    claim.setUserPays(0.0);
-                }
-            }
+            try {
+                return ResponseEntity.ok(claimService.update(claimId, claim -> {
+                    // Another doctor may have completed this claim since it was looked up
+                    if (!"OPEN".equals(claim.getStatus())) {
+                        throw new ClaimConflictException("Claim " + claimId + " is no longer OPEN");
+                    }
+
+                    if (isDuplicate) {
+                        claim.setStatus("REJECTED");
+                        claim.setTreatmentDescription("System Auto-Rejection: Duplicate Claim Detected");
+                        claim.setTotalBillAmount(billAmount);
+                        return;
+                    }
+
+                    // Update Fields from Payload
+                    claim.setInsuranceProvider(doctorEntry.getInsuranceProvider());
+                    claim.setPatientName(doctorEntry.getPatientName());
+                    
+                    // 🟢 Update Doctor Details (Since Bean has them now)
+                    claim.setDoctorId(doctorEntry.getDoctorId()); 
+                    claim.setDoctorName(doctorEntry.getDoctorName());
+                    
+                    claim.setTotalBillAmount(billAmount);
+                    claim.setTreatmentDescription(doctorEntry.getTreatmentDescription());
 
-            return ResponseEntity.ok(claimRepository.save(claim));
+                    // 🟢 Auto-approve / split rules for the provider
+                    if (billAmount != null) {
+                        adjudicationEngine.adjudicate(claim);
+                    }
+                }, null, null).orElseThrow());
+            } catch (ClaimConflictException e) {
+                return ResponseEntity.status(409).body(e.getMessage());
+            }
         }
         return ResponseEntity.status(404).body("No open claim found for this Policy ID");
     }
 
     // 3. PROVIDER VERDICT (Manual)
     @PutMapping("/verdict/{id}")
-    public ResponseEntity<Claim> providerVerdict(@PathVariable Long id, @RequestBody String status) {
-        return claimRepository.findById(id).map(claim -> {
-            claim.setStatus(status);
-            
+    public ResponseEntity<?> providerVerdict(@PathVariable Long id, @RequestBody String status) {
+        try {
             // 🟢 Ensure math runs on manual approval
-            if ("APPROVED".equalsIgnoreCase(status) && claim.getTotalBillAmount() != null) {
-                double total = claim.getTotalBillAmount();
-                claim.setInsurancePays(total * 0.80);
-                claim.setUserPays(total * 0.20);
-            } else {
-                claim.setInsurancePays(0.0);
-                claim.setUserPays(claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0);
-            }
-            return ResponseEntity.ok(claimRepository.save(claim));
-        }).orElse(ResponseEntity.notFound().build());
+            return claimService.applyVerdict(id, status, null, null)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (ClaimConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    // 4. GET ALL
+    // 4. GET ALL (every claim in one response; large callers should use /page or /all/stream)
     @GetMapping("/all")
     public List<Claim> getAllClaims() { return claimRepository.findAll(); }
+
+    // 4a. PAGE OF ALL CLAIMS (keyset paged: ?after=<last claimId>&size=<n>, next cursor in X-Next-Cursor)
+    @GetMapping("/page")
+    public ResponseEntity<List<Claim>> getClaimsPage(
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + ClaimService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return toPageResponse(claimService.getClaimsPage(null, after, size));
+    }
+
+    // 4b. STREAM ALL (NDJSON, constant memory)
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllClaims() {
+        StreamingResponseBody body = out -> claimService.writeClaimsAsNdjson(null, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
     
     @GetMapping("/pending-review")
     public List<Claim> getClaimsPendingReview() {
@@ -162,35 +155,105 @@ public class ClaimController {
     @GetMapping("/user/{userId}")
     public List<Claim> getUserClaims(@PathVariable Long userId) { return claimRepository.findByUserId(userId); }
     
-    // 6. UPLOAD DOCUMENT
+    // 6. UPLOAD DOCUMENT (streamed and hashed, identical files are stored once)
     @PostMapping("/upload-document/{policyNo}")
     public ResponseEntity<?> uploadMedicalDoc(@PathVariable String policyNo, @RequestParam("file") MultipartFile file) {
         try {
             if (file.isEmpty()) return ResponseEntity.badRequest().body("File is empty");
 
-            String folder = "uploads/medical-reports/";
-            Files.createDirectories(Paths.get(folder)); 
-            
-            String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-            Path path = Paths.get(folder + fileName);
-            Files.write(path, file.getBytes());
-
-            Optional<Claim> existingClaim = claimRepository.findAll().stream()
-                .filter(c -> c.getPolicyNo().equals(policyNo) && !c.getStatus().equals("CLOSED"))
-                .findFirst();
-
-            if (existingClaim.isPresent()) {
-                Claim claim = existingClaim.get();
-                claim.setMedicalDocumentPath(fileName);
-                claimRepository.save(claim);
-                return ResponseEntity.ok("File uploaded successfully: " + fileName);
+            Optional<Claim> existingClaim = claimRepository.findFirstByPolicyNoAndStatusNotOrderByClaimIdAsc(policyNo, "CLOSED");
+            if (existingClaim.isEmpty()) {
+                return ResponseEntity.status(404).body("No active claim found.");
+            }
+
+            String fileName;
+            try (InputStream in = file.getInputStream()) {
+                fileName = documentStorage.store(in);
             }
-            return ResponseEntity.status(404).body("No active claim found.");
 
+            claimService.attachMedicalDocument(existingClaim.get().getClaimId(), fileName);
+            return ResponseEntity.ok("File uploaded successfully: " + fileName);
+
+        } catch (ClaimConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Failed to upload file");
         }
     }
+
+    // 6b. RESUMABLE UPLOAD: start a session for a large document
+    @PostMapping("/upload-document/{policyNo}/sessions")
+    public ResponseEntity<?> startUploadSession(
+        @PathVariable String policyNo,
+        @RequestParam String fileName,
+        @RequestParam long size
+    ) {
+        if (claimRepository.findFirstByPolicyNoAndStatusNotOrderByClaimIdAsc(policyNo, "CLOSED").isEmpty()) {
+            return ResponseEntity.status(404).body("No active claim found.");
+        }
+        try {
+            return ResponseEntity.ok(documentStorage.startSession(policyNo, fileName, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Failed to start upload");
+        }
+    }
+
+    // 6c. RESUMABLE UPLOAD: where to resume from
+    @GetMapping("/upload-document/sessions/{uploadId}")
+    public ResponseEntity<?> getUploadSession(@PathVariable String uploadId) {
+        try {
+            return documentStorage.getSession(uploadId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(404).body("Upload not found"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Failed to read upload");
+        }
+    }
+
+    // 6d. RESUMABLE UPLOAD: raw chunk body (application/octet-stream) written at ?offset=
+    @PutMapping("/upload-document/sessions/{uploadId}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId, @RequestParam long offset, HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(documentStorage.appendChunk(uploadId, offset, in));
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.status(404).body("Upload not found");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Failed to store chunk");
+        }
+    }
+
+    // 6e. RESUMABLE UPLOAD: verify ?sha256= and attach the file to the claim
+    @PostMapping("/upload-document/sessions/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId, @RequestParam String sha256) {
+        try {
+            Optional<UploadSession> session = documentStorage.getSession(uploadId);
+            if (session.isEmpty()) return ResponseEntity.status(404).body("Upload not found");
+
+            Optional<Claim> existingClaim = claimRepository.findFirstByPolicyNoAndStatusNotOrderByClaimIdAsc(session.get().getPolicyNo(), "CLOSED");
+            if (existingClaim.isEmpty()) {
+                return ResponseEntity.status(404).body("No active claim found.");
+            }
+
+            String fileName = documentStorage.complete(uploadId, sha256);
+            claimService.attachMedicalDocument(existingClaim.get().getClaimId(), fileName);
+            return ResponseEntity.ok("File uploaded successfully: " + fileName);
+
+        } catch (ClaimConflictException | IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(422).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Failed to complete upload");
+        }
+    }
     
     @GetMapping("/provider/metrics/{providerName}")
     public ResponseEntity<Map<String, Long>> getProviderMetrics(@PathVariable String providerName) {
@@ -202,54 +265,130 @@ public class ClaimController {
         return ResponseEntity.ok(claimService.getHighValueClaims(providerName, 500.00));
     }
 
-    // 7. PROVIDER ACTION (Dashboard)
+    // 7. PROVIDER ACTION (Dashboard; without ?status= only the notes are recorded)
     @PutMapping("/provider/action/{claimId}")
     public ResponseEntity<?> processClaimAction(
         @PathVariable Long claimId, 
-        @RequestParam String status, 
+        @RequestParam(required = false) String status, 
         @RequestBody Map<String, Object> notesPayload
     ) {
-        Optional<Claim> claimOpt = claimRepository.findById(claimId);
-        
-        if (claimOpt.isPresent()) {
-            Claim claim = claimOpt.get();
-            String notes = (String) notesPayload.get("notes");
-            
-            claim.setStatus(status);
-            String currentDesc = claim.getTreatmentDescription() == null ? "" : claim.getTreatmentDescription();
-            claim.setTreatmentDescription(currentDesc + " | Provider Action: " + notes);
-            
-            // 🟢 Ensure Dashboard Approval also uses 80/20
-            if ("APPROVED".equalsIgnoreCase(status)) {
-                double total = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
-                claim.setInsurancePays(total * 0.80);
-                claim.setUserPays(total * 0.20);
-            } else if ("REJECTED".equalsIgnoreCase(status)) {
-                double total = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
-                claim.setInsurancePays(0.0);
-                claim.setUserPays(total);
+        String notes = (String) notesPayload.get("notes");
+        String reviewedBy = (String) notesPayload.get("reviewedBy");
+        try {
+            if (status == null || status.isBlank()) {
+                if (notes == null || notes.isBlank()) return ResponseEntity.badRequest().body("Give a status or notes");
+                return claimService.addNote(claimId, notes, reviewedBy)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(404).body("Claim not found"));
             }
-            
-            return ResponseEntity.ok(claimRepository.save(claim));
+            // 🟢 Same path as the manual verdict: provider's split, notes recorded in the claim's event log
+            return claimService.applyVerdict(claimId, status, reviewedBy, notes)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(404).body("Claim not found"));
+        } catch (ClaimConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.status(404).body("Claim not found");
     }
 
-    // 8. GET PROVIDER CLAIMS
+    // 7b. BULK PROVIDER ACTION (one request, one transaction; results per claim in request order)
+    @PutMapping("/provider/action/bulk")
+    public ResponseEntity<?> processClaimActions(@RequestBody BulkVerdictRequest request) {
+        List<Long> claimIds = request.getClaimIds();
+        if (claimIds == null || claimIds.isEmpty()) return ResponseEntity.badRequest().body("No claimIds given");
+        if (claimIds.size() > ClaimService.MAX_BULK_VERDICTS) {
+            return ResponseEntity.badRequest().body("Too many claims (max " + ClaimService.MAX_BULK_VERDICTS + ")");
+        }
+        try {
+            return ResponseEntity.ok(claimService.applyVerdicts(claimIds, request.getStatus(), request.getReviewedBy(), request.getNotes()));
+        } catch (ClaimConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 8. GET PROVIDER CLAIMS (every claim of the provider in one response)
     @GetMapping("/provider/all/{providerName}")
     public ResponseEntity<List<Claim>> getAllProviderClaims(@PathVariable String providerName) {
-        return ResponseEntity.ok(claimRepository.findAll());
+        return ResponseEntity.ok(claimRepository.findByInsuranceProvider(providerName));
+    }
+
+    // 8a. PAGE OF PROVIDER CLAIMS (keyset paged, same contract as /page)
+    @GetMapping("/provider/page/{providerName}")
+    public ResponseEntity<List<Claim>> getProviderClaimsPage(
+        @PathVariable String providerName,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "" + ClaimService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return toPageResponse(claimService.getClaimsPage(providerName, after, size));
+    }
+
+    // 8b. STREAM PROVIDER CLAIMS (NDJSON, constant memory)
+    @GetMapping(value = "/provider/all/{providerName}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProviderClaims(@PathVariable String providerName) {
+        StreamingResponseBody body = out -> claimService.writeClaimsAsNdjson(providerName, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
     
-    // 9. DOCTOR STATS
-    @GetMapping("/doctor-stats/{doctorName}")
-    public Map<String, Object> getDoctorRevenue(@PathVariable String doctorName) {
-        List<Claim> claims = claimRepository.findAll();
-        double totalRevenue = claims.stream()
-            .mapToDouble(c -> c.getTotalBillAmount() != null ? c.getTotalBillAmount() : 0.0)
-            .sum();
-        Map<String, Object> response = new HashMap<>();
-        response.put("revenue", totalRevenue);
-        return response;
+    // 9. DOCTOR STATS (path value is a doctorId when numeric, otherwise the doctor's name)
+    @GetMapping("/doctor-stats/{doctor}")
+    public Map<String, Object> getDoctorRevenue(@PathVariable String doctor) {
+        if (doctor.chars().allMatch(Character::isDigit)) {
+            return doctorStatsStore.getStatsById(Long.valueOf(doctor));
+        }
+        return doctorStatsStore.getStatsByName(doctor);
+    }
+
+    // 10. DUPLICATE DETECTOR METRICS (Bloom filter hit rate / false positive rate)
+    @GetMapping("/duplicates/metrics")
+    public Map<String, Object> getDuplicateDetectorMetrics() {
+        return duplicateClaimDetector.getMetrics();
+    }
+
+    // 11. FULL-TEXT SEARCH (patient, doctor and treatment text; every word matches as a prefix, newest first)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchClaims(
+        @RequestParam String q,
+        @RequestParam(required = false) String provider,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue = "" + ClaimService.DEFAULT_PAGE_SIZE) int limit
+    ) {
+        if (q.isBlank()) return ResponseEntity.badRequest().body("Query must not be empty");
+        return ResponseEntity.ok(claimService.searchClaims(q, provider, status, from, to, limit));
+    }
+
+    // 12. HISTOGRAM (claims filed / approved / paid by filing date; ?provider= or ?doctor= (id or name), else all claims)
+    @GetMapping("/histogram")
+    public ResponseEntity<?> getHistogram(
+        @RequestParam(required = false) String provider,
+        @RequestParam(required = false) String doctor,
+        @RequestParam(defaultValue = "DAY") String granularity,
+        @RequestParam(defaultValue = "90") int days
+    ) {
+        ClaimHistogramStore.Granularity g;
+        try {
+            g = ClaimHistogramStore.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("granularity must be DAY, WEEK or MONTH");
+        }
+        return ResponseEntity.ok(histogramStore.histogram(provider, doctor, g, days, LocalDate.now()));
+    }
+
+    // 13. RISK SCORING METRICS (bills scored, bills at or above the review score, tracked doctors / policies)
+    @GetMapping("/risk/metrics")
+    public Map<String, Object> getRiskMetrics() {
+        return riskScorer.getMetrics();
+    }
+
+    private ResponseEntity<List<Claim>> toPageResponse(ClaimPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
     }
 }
\ No newline at end of file
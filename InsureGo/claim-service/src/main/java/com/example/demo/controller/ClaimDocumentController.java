@@ -0,0 +1,151 @@
+package com.example.demo.controller;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.repository.ClaimRepository;
+import com.example.demo.service.ContentAddressedStore;
+import com.example.demo.service.MedicalDocumentStorage;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+// Serves claim documents to reviewers straight from disk: single byte ranges (206), ETag / If-None-Match (304)
+// and If-Range. Bytes are pushed with FileChannel.transferTo in bounded slices, so no file is buffered in the heap.
+@RestController
+@RequestMapping("/claim")
+public class ClaimDocumentController {
+
+    private static final long TRANSFER_SLICE = 4L * 1024 * 1024;
+
+    @Autowired private ClaimRepository claimRepository;
+    @Autowired private ContentAddressedStore contentStore;
+
+    @GetMapping("/{id}/document")
+    public void getDocument(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+        HttpServletResponse response
+    ) throws IOException {
+        String reference = claimRepository.findById(id).map(Claim::getMedicalDocumentPath).orElse(null);
+        Path file = reference == null ? null : resolve(reference);
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(404, "No document for this claim");
+            return;
+        }
+        long length = Files.size(file);
+        String etag = etagFor(reference, file, length);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=86400");
+
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            response.setStatus(304);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        // If-Range with a stale ETag means "send the whole (new) file"; malformed or multi-range requests
+        // are answered with the whole file too (allowed by RFC 9110)
+        List<HttpRange> ranges = List.of();
+        if (rangeHeader != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+        }
+        if (ranges.size() == 1) {
+            try {
+                if (length == 0) throw new IllegalArgumentException("empty file");
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(416);
+                return;
+            }
+            response.setStatus(206);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        response.setContentType(contentTypeOf(reference, file).toString());
+        response.setContentLengthLong(count);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, Math.min(remaining, TRANSFER_SLICE), out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // Content-addressed references live in the blob store; older uploads sit directly under the reports folder
+    private Path resolve(String reference) {
+        Path blob = contentStore.resolve(reference);
+        if (blob != null) return blob;
+        Path root = MedicalDocumentStorage.ROOT.toAbsolutePath().normalize();
+        Path legacy = root.resolve(reference).normalize();
+        return legacy.startsWith(root) ? legacy : null;
+    }
+
+    // The content hash is a strong validator; legacy files fall back to size + mtime
+    private static String etagFor(String reference, Path file, long length) throws IOException {
+        String hash = ContentAddressedStore.hashOf(reference);
+        if (hash != null) return "\"" + hash + "\"";
+        return "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag) || c.equals(opaque) || c.equals("W/" + opaque)) return true;
+        }
+        return false;
+    }
+
+    private static MediaType contentTypeOf(String reference, Path file) {
+        Optional<MediaType> byName = MediaTypeFactory.getMediaType(reference);
+        if (byName.isPresent()) return byName.get();
+
+        // Content-addressed files have no extension: sniff the first bytes
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            in.mark(8);
+            byte[] magic = in.readNBytes(5);
+            if (new String(magic, StandardCharsets.US_ASCII).equals("%PDF-")) return MediaType.APPLICATION_PDF;
+            in.reset();
+            String sniffed = URLConnection.guessContentTypeFromStream(in);
+            if (sniffed != null) return MediaType.parseMediaType(sniffed);
+        } catch (IOException | IllegalArgumentException e) {
+            // unknown -> binary
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.ClaimInstanceLease;
+import com.example.demo.service.ClaimExportJob;
+import com.example.demo.service.ClaimExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.zip.GZIPOutputStream;
+
+// Reconciliation exports of a provider's claims as gzip-compressed CSV
+@RestController
+@RequestMapping("/claim/export")
+public class ClaimExportController {
+
+    @Autowired private ClaimExportService exportService;
+    @Autowired private ClaimExportJob exportJob;
+    @Autowired private ClaimInstanceLease instanceLease;
+
+    // 1. STREAMED EXPORT (?month=yyyy-MM optional; ?after=<claimId> resumes after the last row received, without header)
+    @GetMapping("/{providerName}")
+    public ResponseEntity<?> exportClaims(
+        @PathVariable String providerName,
+        @RequestParam(required = false) String month,
+        @RequestParam(required = false) Long after
+    ) {
+        YearMonth period;
+        try {
+            period = month == null ? null : YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("month must be yyyy-MM");
+        }
+
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+            if (after == null) writer.write(ClaimExportService.CSV_HEADER + "\n");
+            exportService.forEachClaim(providerName, period, after == null ? 0L : after,
+                claim -> ClaimExportService.writeCsvRow(writer, claim));
+            writer.flush();
+            gzip.finish();
+        };
+        String fileName = "claims-" + ClaimExportJob.safeName(providerName) + (period == null ? "" : "-" + period) + ".csv.gz";
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(body);
+    }
+
+    // 2. RUN / RESUME THE OFFLINE MONTHLY EXPORT (writes exports/claims/<provider dir>/<yyyy-MM>.csv.gz on the instance)
+    @PostMapping("/jobs/{providerName}")
+    public ResponseEntity<?> runExportJob(@PathVariable String providerName, @RequestParam String month) {
+        if (!instanceLease.isHeld()) return ResponseEntity.status(503).body("This node is shutting down (claim-service instance lease lost); retry");
+        try {
+            return ResponseEntity.ok(exportJob.run(providerName, YearMonth.parse(month)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("month must be yyyy-MM");
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Export failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import com.example.demo.bean.ClaimSnapshot;
+import com.example.demo.service.ClaimEventLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Claim history from the append-only claim_events log
+@RestController
+@RequestMapping("/claim")
+public class ClaimHistoryController {
+
+    @Autowired private ClaimEventLog eventLog;
+
+    // Full history, one event per line, oldest first
+    @GetMapping(value = "/{id}/history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getHistory(@PathVariable Long id) {
+        if (eventLog.getSnapshot(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> eventLog.writeHistoryAsNdjson(id, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Current folded state, or the state as of event ?seq=
+    @GetMapping("/{id}/history/state")
+    public ResponseEntity<ClaimSnapshot> getState(@PathVariable Long id, @RequestParam(required = false) Long seq) {
+        return (seq == null ? eventLog.getSnapshot(id) : eventLog.replay(id, seq))
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
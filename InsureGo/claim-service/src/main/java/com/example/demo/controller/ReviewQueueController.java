@@ -0,0 +1,112 @@
+package com.example.demo.controller;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.config.ClaimInstanceLease;
+import com.example.demo.dto.ReviewLease;
+import com.example.demo.repository.ClaimRepository;
+import com.example.demo.service.ClaimConflictException;
+import com.example.demo.service.ClaimService;
+import com.example.demo.service.ReviewQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Reviewer work queue: lease the next PENDING_APPROVAL claim of a provider, then complete or release it.
+// The queue and its leases are in memory, pinned to the one claim-service instance (ClaimInstanceLease),
+// so every claim write and every lease call reaches the same queue. A node that has lost the instance
+// lease answers 503 until it has shut down. Claims changed outside claim-service (e.g. straight in
+// the DB) are dropped here when a lease or a verdict runs into them.
+@RestController
+@RequestMapping("/claim/review")
+public class ReviewQueueController {
+
+    @Autowired private ReviewQueue reviewQueue;
+    @Autowired private ClaimService claimService;
+    @Autowired private ClaimRepository claimRepository;
+    @Autowired private ClaimInstanceLease instanceLease;
+
+    // 1. LEASE NEXT CLAIM (204 when the provider's queue is empty)
+    @PostMapping("/{providerName}/lease")
+    public ResponseEntity<?> leaseNext(
+        @PathVariable String providerName,
+        @RequestParam String reviewer,
+        @RequestParam(required = false) Long leaseMs
+    ) {
+        if (!instanceLease.isHeld()) return notTheInstance();
+        while (true) {
+            Optional<ReviewLease> lease = reviewQueue.lease(providerName, reviewer, leaseMs);
+            if (lease.isEmpty()) return ResponseEntity.noContent().build();
+            Optional<Claim> claim = claimRepository.findById(lease.get().getClaimId());
+            if (claim.isPresent() && "PENDING_APPROVAL".equals(claim.get().getStatus())) {
+                lease.get().setClaim(claim.get());
+                return ResponseEntity.ok(lease.get());
+            }
+            // Decided or deleted through another node: drop it and try the next one
+            reviewQueue.complete(lease.get().getLeaseId());
+        }
+    }
+
+    // 2. EXTEND A LEASE (reviewer still working)
+    @PutMapping("/leases/{leaseId}")
+    public ResponseEntity<?> renewLease(@PathVariable String leaseId, @RequestParam(required = false) Long leaseMs) {
+        if (!instanceLease.isHeld()) return notTheInstance();
+        return reviewQueue.renew(leaseId, leaseMs)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElse(ResponseEntity.status(404).body("Lease not found or expired"));
+    }
+
+    // 3. RELEASE (give the claim back to the queue undecided)
+    @DeleteMapping("/leases/{leaseId}")
+    public ResponseEntity<?> releaseLease(@PathVariable String leaseId) {
+        if (!instanceLease.isHeld()) return notTheInstance();
+        return reviewQueue.release(leaseId)
+            ? ResponseEntity.ok().build()
+            : ResponseEntity.status(404).body("Lease not found or expired");
+    }
+
+    // 4. COMPLETE (verdict on the leased claim; body {"notes": "..."} is optional)
+    @PostMapping("/leases/{leaseId}/complete")
+    public ResponseEntity<?> completeLease(
+        @PathVariable String leaseId,
+        @RequestParam String status,
+        @RequestBody(required = false) Map<String, Object> notesPayload
+    ) {
+        if (!instanceLease.isHeld()) return notTheInstance();
+        Optional<ReviewLease> lease = reviewQueue.find(leaseId);
+        if (lease.isEmpty()) return ResponseEntity.status(404).body("Lease not found or expired");
+
+        String notes = notesPayload == null ? null : (String) notesPayload.get("notes");
+        try {
+            return claimService.applyVerdict(lease.get().getClaimId(), status, lease.get().getReviewer(), notes)
+                .<ResponseEntity<?>>map(claim -> {
+                    reviewQueue.complete(leaseId);
+                    return ResponseEntity.ok(claim);
+                })
+                .orElseGet(() -> {
+                    reviewQueue.complete(leaseId);
+                    return ResponseEntity.status(404).body("Claim not found");
+                });
+        } catch (ClaimConflictException e) {
+            // Busy / raced: the reviewer keeps the lease and can try again.
+            // Already decided (possibly through another node): it will never take a verdict, drop it.
+            if (!e.isRetryable()) reviewQueue.complete(leaseId);
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 5. QUEUE DEPTH
+    @GetMapping("/{providerName}/stats")
+    public ResponseEntity<?> getQueueStats(@PathVariable String providerName) {
+        if (!instanceLease.isHeld()) return notTheInstance();
+        return ResponseEntity.ok(reviewQueue.getStats(providerName));
+    }
+
+    private static ResponseEntity<?> notTheInstance() {
+        return ResponseEntity.status(503).body("This node is shutting down (claim-service instance lease lost); retry");
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.controller;
+
+import com.example.demo.bean.Settlement;
+import com.example.demo.bean.SettlementLine;
+import com.example.demo.service.SettlementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Settlement ledger: run (or finish) a settlement and read the immutable results
+@RestController
+@RequestMapping("/claim/settlements")
+public class SettlementController {
+
+    @Autowired private SettlementService settlementService;
+
+    // 1. RUN ON DEMAND (?runKey= defaults to "manual-<timestamp>", so it never takes the nightly run's date key;
+    //    re-running a completed key just returns it)
+    @PostMapping("/run")
+    public ResponseEntity<?> runSettlement(@RequestParam(required = false) String runKey) {
+        String key = runKey != null ? runKey : SettlementService.MANUAL_PREFIX + LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        try {
+            return ResponseEntity.ok(settlementService.settle(key));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Settlement " + key + " is being started on another node");
+        }
+    }
+
+    // 2. RECENT RUNS
+    @GetMapping
+    public List<Settlement> getSettlements() {
+        return settlementService.getRecentSettlements();
+    }
+
+    // 3. LEDGER LINES (per provider total, then per doctor)
+    @GetMapping("/{id}/lines")
+    public List<SettlementLine> getSettlementLines(@PathVariable Long id) {
+        return settlementService.getLines(id);
+    }
+}
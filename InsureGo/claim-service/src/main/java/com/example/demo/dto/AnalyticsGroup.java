@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+public class AnalyticsGroup {
+    // One row of an analytics group-by: number of claims, total billed and insurer payout for 'key'
+
+    private final String key;
+    private final long claims;
+    private final double billed;
+    private final double insurancePays;
+
+    public AnalyticsGroup(String key, long claims, double billed, double insurancePays) {
+        this.key = key;
+        this.claims = claims;
+        this.billed = billed;
+        this.insurancePays = insurancePays;
+    }
+
+    public String getKey() { return key; }
+    public long getClaims() { return claims; }
+    public double getBilled() { return billed; }
+    public double getInsurancePays() { return insurancePays; }
+}
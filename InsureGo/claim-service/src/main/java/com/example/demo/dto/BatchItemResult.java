@@ -0,0 +1,30 @@
+package com.example.demo.dto;
+
+public class BatchItemResult {
+    // Outcome of one entry of a batch request. 'index' is the entry's position in the request body.
+
+    private final int index;
+    private final Long claimId;
+    private final String status;
+    private final String error;
+
+    private BatchItemResult(int index, Long claimId, String status, String error) {
+        this.index = index;
+        this.claimId = claimId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchItemResult ok(int index, Long claimId, String status) {
+        return new BatchItemResult(index, claimId, status, null);
+    }
+
+    public static BatchItemResult failed(int index, Long claimId, String error) {
+        return new BatchItemResult(index, claimId, null, error);
+    }
+
+    public int getIndex() { return index; }
+    public Long getClaimId() { return claimId; }
+    public String getStatus() { return status; }
+    public String getError() { return error; }
+}
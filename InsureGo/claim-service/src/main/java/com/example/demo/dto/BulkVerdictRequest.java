@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BulkVerdictRequest {
+    // Body of PUT /claim/provider/action/bulk: one verdict (APPROVED / REJECTED) and note for every listed claim
+
+    private List<Long> claimIds;
+    private String status;
+    private String notes;
+    private String reviewedBy;
+
+    public List<Long> getClaimIds() { return claimIds; }
+    public void setClaimIds(List<Long> claimIds) { this.claimIds = claimIds; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    public String getReviewedBy() { return reviewedBy; }
+    public void setReviewedBy(String reviewedBy) { this.reviewedBy = reviewedBy; }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import com.example.demo.bean.Claim;
+import java.util.List;
+
+public class ClaimPage {
+    // One keyset page. nextCursor is the claimId to pass as 'after' for the next page,
+    // or null when this was the last page.
+
+    private final List<Claim> items;
+    private final Long nextCursor;
+
+    public ClaimPage(List<Claim> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Claim> getItems() { return items; }
+    public Long getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+public class HistogramBucket {
+    // Claims filed in [start, start + one day/week/month): how many, how many of them are approved, insurer payout
+
+    private final LocalDate start;
+    private final long filed;
+    private final long approved;
+    private final double paid;
+
+    public HistogramBucket(LocalDate start, long filed, long approved, double paid) {
+        this.start = start;
+        this.filed = filed;
+        this.approved = approved;
+        this.paid = paid;
+    }
+
+    public LocalDate getStart() { return start; }
+    public long getFiled() { return filed; }
+    public long getApproved() { return approved; }
+    public double getPaid() { return paid; }
+}
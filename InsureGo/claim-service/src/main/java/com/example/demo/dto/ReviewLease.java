@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.bean.Claim;
+
+// A reviewer's exclusive hold on one PENDING_APPROVAL claim until expiresAt (epoch millis).
+// Complete or release it with leaseId; an expired lease puts the claim back in the queue.
+public class ReviewLease {
+
+    private final String leaseId;
+    private final Long claimId;
+    private final String insuranceProvider;
+    private final String reviewer;
+    private final long expiresAt;
+    private Claim claim;
+
+    public ReviewLease(String leaseId, Long claimId, String insuranceProvider, String reviewer, long expiresAt) {
+        this.leaseId = leaseId;
+        this.claimId = claimId;
+        this.insuranceProvider = insuranceProvider;
+        this.reviewer = reviewer;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getLeaseId() { return leaseId; }
+    public Long getClaimId() { return claimId; }
+    public String getInsuranceProvider() { return insuranceProvider; }
+    public String getReviewer() { return reviewer; }
+    public long getExpiresAt() { return expiresAt; }
+    public Claim getClaim() { return claim; }
+    public void setClaim(Claim claim) { this.claim = claim; }
+}
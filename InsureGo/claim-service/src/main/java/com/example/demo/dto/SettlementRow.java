@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+public class SettlementRow {
+    // Projection of the claim columns a settlement adds up (no entity, no persistence-context entry)
+
+    private final Long doctorId;
+    private final String doctorName;
+    private final double totalBilled;
+    private final double insurancePays;
+    private final double userPays;
+
+    public SettlementRow(Long doctorId, String doctorName, Double totalBilled, Double insurancePays, Double userPays) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.totalBilled = totalBilled != null ? totalBilled : 0.0;
+        this.insurancePays = insurancePays != null ? insurancePays : 0.0;
+        this.userPays = userPays != null ? userPays : 0.0;
+    }
+
+    public Long getDoctorId() { return doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public double getTotalBilled() { return totalBilled; }
+    public double getInsurancePays() { return insurancePays; }
+    public double getUserPays() { return userPays; }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+public class UploadSession {
+    // State of a resumable (chunked) document upload. 'offset' is the number of bytes received so far;
+    // the next chunk must start exactly there.
+
+    private final String uploadId;
+    private final String policyNo;
+    private final String fileName;
+    private final long totalSize;
+    private final long offset;
+
+    public UploadSession(String uploadId, String policyNo, String fileName, long totalSize, long offset) {
+        this.uploadId = uploadId;
+        this.policyNo = policyNo;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.offset = offset;
+    }
+
+    public String getUploadId() { return uploadId; }
+    public String getPolicyNo() { return policyNo; }
+    public String getFileName() { return fileName; }
+    public long getTotalSize() { return totalSize; }
+    public long getOffset() { return offset; }
+    public boolean isComplete() { return offset == totalSize; }
+}
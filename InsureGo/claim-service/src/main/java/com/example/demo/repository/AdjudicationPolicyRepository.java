@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.AdjudicationPolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Optional;
+
+public interface AdjudicationPolicyRepository extends JpaRepository<AdjudicationPolicy, Long> {
+    Optional<AdjudicationPolicy> findByInsuranceProvider(String insuranceProvider);
+}
@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.ClaimEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ClaimEventRepository extends JpaRepository<ClaimEvent, Long> {
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ClaimEvent> streamByClaimIdOrderBySeqAsc(Long claimId);
+
+    Optional<ClaimEvent> findByClaimIdAndSeq(Long claimId, long seq);
+}
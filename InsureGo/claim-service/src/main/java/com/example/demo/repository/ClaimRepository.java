@@ -2,9 +2,19 @@ package com.example.demo.repository;
 
 
 import com.example.demo.bean.Claim;
+import com.example.demo.dto.SettlementRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
     List<Claim> findByUserId(Long userId);
@@ -13,7 +23,72 @@ public interface ClaimRepository extends JpaRepository<Claim, Long> {
     boolean existsByPolicyNoAndTotalBillAmountAndDateFiled(String policyNo, Double amount, LocalDate date);
     List<Claim> findByInsuranceProvider(String insuranceProvider);
 
-  
+    // Open-claim lookup (served by idx_claims_policy_status).
+    // When a policy has several matching claims the oldest one (lowest claimId) wins.
+    Optional<Claim> findFirstByPolicyNoAndStatusOrderByClaimIdAsc(String policyNo, String status);
+    Optional<Claim> findFirstByPolicyNoAndStatusNotOrderByClaimIdAsc(String policyNo, String status);
+
+    // Keyset (cursor) paging: pass the last claimId of the previous page as 'afterId'
+    List<Claim> findByClaimIdGreaterThanOrderByClaimIdAsc(Long afterId, Limit limit);
+    List<Claim> findByInsuranceProviderAndClaimIdGreaterThanOrderByClaimIdAsc(String insuranceProvider, Long afterId, Limit limit);
+
+    // Forward-only streams for NDJSON export. Integer.MIN_VALUE tells the MySQL driver
+    // to stream rows instead of buffering the whole result set. Must be consumed inside a transaction.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Claim> streamAllByOrderByClaimIdAsc();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Claim> streamByInsuranceProviderOrderByClaimIdAsc(String insuranceProvider);
+
+    // Reconciliation export, resumable from a claimId checkpoint (served by idx_claims_provider_id)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Claim> streamByInsuranceProviderAndClaimIdGreaterThanOrderByClaimIdAsc(String insuranceProvider, Long afterId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Claim> streamByInsuranceProviderAndClaimIdGreaterThanAndDateFiledBetweenOrderByClaimIdAsc(
+        String insuranceProvider, Long afterId, LocalDate from, LocalDate to);
+
+    @Query("select distinct c.insuranceProvider from Claim c where c.insuranceProvider is not null")
+    List<String> findDistinctInsuranceProviders();
+
+    // Settlement run (served by idx_claims_unsettled / idx_claims_settlement)
+    @Query("select max(c.claimId) from Claim c")
+    Long findMaxClaimId();
+
+    @Query("select c.claimId from Claim c where c.status = 'APPROVED' and c.settlementId is null "
+        + "and c.claimId > :afterId and c.claimId <= :cutoff order by c.claimId")
+    List<Long> findUnsettledApprovedIds(@Param("afterId") long afterId, @Param("cutoff") long cutoff, Limit limit);
+
+    // Bulk UPDATE: bypasses the persistence context and listeners; bumps version so in-flight edits of these claims retry
+    @Modifying
+    @Query("update Claim c set c.settlementId = :settlementId, c.version = c.version + 1 "
+        + "where c.claimId in :ids and c.status = 'APPROVED' and c.settlementId is null")
+    int markSettled(@Param("settlementId") Long settlementId, @Param("ids") List<Long> ids);
+
+    @Query("select distinct c.insuranceProvider from Claim c where c.settlementId = :settlementId")
+    List<String> findSettlementProviders(@Param("settlementId") Long settlementId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.demo.dto.SettlementRow(c.doctorId, c.doctorName, c.totalBillAmount, c.insurancePays, c.userPays) "
+        + "from Claim c where c.settlementId = :settlementId and "
+        + "(c.insuranceProvider = :provider or (:provider is null and c.insuranceProvider is null))")
+    Stream<SettlementRow> streamSettlementRows(@Param("settlementId") Long settlementId, @Param("provider") String provider);
+
     List<Claim> findByInsuranceProviderAndTotalBillAmountGreaterThanAndStatus(
         String insuranceProvider, 
         double totalBillAmount, 
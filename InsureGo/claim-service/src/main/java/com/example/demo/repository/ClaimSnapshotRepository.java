@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.ClaimSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ClaimSnapshotRepository extends JpaRepository<ClaimSnapshot, Long> {
+}
@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.InstanceLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface InstanceLeaseRepository extends JpaRepository<InstanceLease, String> {
+
+    // Renews our own lease, or takes over one its holder stopped renewing; 0 while another node holds it
+    @Modifying
+    @Transactional
+    @Query("update InstanceLease l set l.owner = :owner, l.expiresAt = :expiresAt "
+        + "where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Clean shutdown: a standby may start right away instead of waiting for the lease to run out
+    @Modifying
+    @Transactional
+    @Query("update InstanceLease l set l.expiresAt = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.SettlementLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SettlementLineRepository extends JpaRepository<SettlementLine, Long> {
+    List<SettlementLine> findBySettlementIdOrderByInsuranceProviderAscIdAsc(Long settlementId);
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.Settlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SettlementRepository extends JpaRepository<Settlement, Long> {
+    Optional<Settlement> findByRunKey(String runKey);
+    List<Settlement> findByStatusOrderByIdAsc(String status);
+    List<Settlement> findTop50ByOrderByIdDesc();
+}
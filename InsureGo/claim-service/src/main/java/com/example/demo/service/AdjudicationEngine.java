@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.AdjudicationPolicy;
+import com.example.demo.bean.Claim;
+import com.example.demo.repository.AdjudicationPolicyRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Single home of the claim adjudication rules (auto-approve threshold, co-pay split, rejection caps).
+// Compiled rules are cached per insuranceProvider in an immutable map that is swapped on reload,
+// so the hot path is one map lookup plus a loop over primitive arrays.
+@Service
+public class AdjudicationEngine {
+
+    private static final AdjudicationRules DEFAULT_RULES = AdjudicationRules.compile(AdjudicationPolicy.defaults(null));
+
+    @Autowired
+    private AdjudicationPolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRiskScorer riskScorer;
+
+    private volatile Map<String, AdjudicationRules> rulesByProvider = Map.of();
+
+    // Picks up policy edits made through other nodes (or directly in the DB) without a restart
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${claim.adjudication.reload-ms:60000}")
+    public void reload() {
+        Map<String, AdjudicationRules> compiled = new HashMap<>();
+        for (AdjudicationPolicy policy : policyRepository.findAll()) {
+            try {
+                compiled.put(policy.getInsuranceProvider(), AdjudicationRules.compile(policy));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring invalid adjudication policy for " + policy.getInsuranceProvider() + ": " + e.getMessage());
+            }
+        }
+        rulesByProvider = Map.copyOf(compiled);
+    }
+
+    public AdjudicationRules rulesFor(String insuranceProvider) {
+        if (insuranceProvider == null) return DEFAULT_RULES;
+        return rulesByProvider.getOrDefault(insuranceProvider, DEFAULT_RULES);
+    }
+
+    // New bill (initiate / doctor update): decide APPROVED / PENDING_APPROVAL / REJECTED and set the split.
+    // An unusual bill for its doctor or policy is held for review even when the amount would auto-approve.
+    // The doctor's treatmentDescription is left as written; the outcome goes to adjudicationNote.
+    public void adjudicate(Claim claim) {
+        double amount = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
+        AdjudicationRules rules = rulesFor(claim.getInsuranceProvider());
+        int rule = rules.match(amount);
+        int outcome = rules.outcomeOf(rule);
+        String note = rules.noteFor(rule);
+
+        double risk = riskScorer.score(claim);
+        claim.setRiskScore(risk);
+        if (outcome == AdjudicationRules.APPROVE && riskScorer.needsReview(risk)) {
+            outcome = AdjudicationRules.REVIEW;
+            note = String.format(Locale.ROOT, "Held for Review: Risk Score %.2f", risk);
+        }
+
+        switch (outcome) {
+            case AdjudicationRules.APPROVE -> {
+                claim.setStatus("APPROVED");
+                claim.setInsurancePays(rules.insurancePays(amount));
+                claim.setUserPays(rules.userPays(amount));
+            }
+            case AdjudicationRules.REJECT -> {
+                claim.setStatus("REJECTED");
+                claim.setInsurancePays(0.0);
+                claim.setUserPays(amount);
+            }
+            default -> {
+                // High Value -> Pending Provider Action, split is calculated on approval
+                claim.setStatus("PENDING_APPROVAL");
+                claim.setInsurancePays(0.0);
+                claim.setUserPays(0.0);
+            }
+        }
+
+        // Own column, not appended to treatmentDescription: a retried or repeated adjudication replaces it
+        claim.setAdjudicationNote(note.isEmpty() ? null : note);
+    }
+
+    // Manual provider decision: APPROVED pays the provider's split, REJECTED leaves the whole bill to the user
+    public void applyVerdict(Claim claim, String status) {
+        double total = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
+        AdjudicationRules rules = rulesFor(claim.getInsuranceProvider());
+        if ("APPROVED".equalsIgnoreCase(status)) {
+            claim.setInsurancePays(rules.insurancePays(total));
+            claim.setUserPays(rules.userPays(total));
+        } else if ("REJECTED".equalsIgnoreCase(status)) {
+            claim.setInsurancePays(0.0);
+            claim.setUserPays(total);
+        }
+    }
+}
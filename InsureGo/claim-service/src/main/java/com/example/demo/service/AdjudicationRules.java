@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.AdjudicationPolicy;
+
+import java.util.Locale;
+
+// Compiled form of an AdjudicationPolicy. The rule chain is flattened into primitive arrays once,
+// so decide()/insurancePays()/userPays() run without allocating and can be shared across threads.
+public final class AdjudicationRules {
+
+    public static final int APPROVE = 1;
+    public static final int REVIEW = 2;
+    public static final int REJECT = 3;
+
+    private final int[] outcomes;
+    private final double[] limits;
+    private final boolean[] below;   // true: amount < limit, false: amount >= limit (REVIEW_FROM) / > limit (REJECT_ABOVE)
+    private final boolean[] inclusive;
+    private final String[] notes;    // pre-built description suffix per rule
+    private final double insuranceShare;
+    private final double deductible;
+
+    private AdjudicationRules(int size, double insuranceShare, double deductible) {
+        this.outcomes = new int[size];
+        this.limits = new double[size];
+        this.below = new boolean[size];
+        this.inclusive = new boolean[size];
+        this.notes = new String[size];
+        this.insuranceShare = insuranceShare;
+        this.deductible = deductible;
+    }
+
+    public static AdjudicationRules compile(AdjudicationPolicy policy) {
+        if (policy.getInsuranceShare() < 0 || policy.getInsuranceShare() > 1) {
+            throw new IllegalArgumentException("insuranceShare must be between 0 and 1");
+        }
+        if (policy.getDeductible() < 0) {
+            throw new IllegalArgumentException("deductible must not be negative");
+        }
+        String chain = policy.getRuleChain() == null || policy.getRuleChain().isBlank()
+            ? AdjudicationPolicy.DEFAULT_RULE_CHAIN : policy.getRuleChain();
+        String[] parts = chain.split(",");
+
+        AdjudicationRules rules = new AdjudicationRules(parts.length, policy.getInsuranceShare(), policy.getDeductible());
+        for (int i = 0; i < parts.length; i++) {
+            String[] rule = parts[i].trim().split(":");
+            if (rule.length != 2) {
+                throw new IllegalArgumentException("Rule must look like KIND:amount, got '" + parts[i].trim() + "'");
+            }
+            double limit;
+            try {
+                limit = Double.parseDouble(rule[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount in rule '" + parts[i].trim() + "'");
+            }
+            String amount = formatAmount(limit);
+            rules.limits[i] = limit;
+            switch (rule[0].trim().toUpperCase(Locale.ROOT)) {
+                case "APPROVE_BELOW" -> {
+                    rules.outcomes[i] = APPROVE;
+                    rules.below[i] = true;
+                    rules.notes[i] = "Auto-Approved < $" + amount;
+                }
+                case "REVIEW_FROM" -> {
+                    rules.outcomes[i] = REVIEW;
+                    rules.inclusive[i] = true;
+                    rules.notes[i] = "";
+                }
+                case "REJECT_ABOVE" -> {
+                    rules.outcomes[i] = REJECT;
+                    rules.notes[i] = "Auto-Rejected > $" + amount;
+                }
+                default -> throw new IllegalArgumentException("Unknown rule kind '" + rule[0].trim() + "'");
+            }
+        }
+        return rules;
+    }
+
+    // Index of the first matching rule, or -1 (-> manual review)
+    public int match(double amount) {
+        for (int i = 0; i < outcomes.length; i++) {
+            double limit = limits[i];
+            boolean hit = below[i] ? amount < limit : (inclusive[i] ? amount >= limit : amount > limit);
+            if (hit) return i;
+        }
+        return -1;
+    }
+
+    public int decide(double amount) {
+        return outcomeOf(match(amount));
+    }
+
+    public int outcomeOf(int rule) {
+        return rule < 0 ? REVIEW : outcomes[rule];
+    }
+
+    public String noteFor(int rule) {
+        return rule < 0 ? "" : notes[rule];
+    }
+
+    public double insurancePays(double amount) {
+        return Math.max(0.0, amount - deductible) * insuranceShare;
+    }
+
+    public double userPays(double amount) {
+        return amount - insurancePays(amount);
+    }
+
+    private static String formatAmount(double amount) {
+        return amount == Math.rint(amount) ? String.valueOf((long) amount) : String.valueOf(amount);
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.AnalyticsGroup;
+import com.example.demo.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// Read-optimised copy of the claims for dashboard breakdowns: one primitive array per column
+// (amounts as double, provider / doctor / status as dictionary codes, filing date as epoch day),
+// about 30 bytes per claim. Group-by queries scan the arrays in parallel chunks with tight loops.
+// Kept in sync from claim writes and rebuilt by ClaimViewWarmup on start.
+@Component
+public class ClaimAnalyticsStore implements ClaimChangeListener {
+
+    public enum GroupBy { STATUS, DOCTOR, MONTH }
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int NONE = -1;
+    private static final int SCAN_CHUNK = 64 * 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntHashMap rowOf = new LongIntHashMap(1024);
+    private final Dictionary providers = new Dictionary();
+    private final Dictionary doctors = new Dictionary();
+    // Stored as code + 1 in a byte (0 = no status). Cardinality is tiny (ClaimStatusFlow plus legacy values)
+    private final Dictionary statuses = new Dictionary();
+
+    private double[] billed = new double[1024];
+    private double[] paid = new double[1024];
+    private int[] provider = new int[1024];
+    private int[] doctor = new int[1024];
+    private byte[] status = new byte[1024];
+    private int[] filedDay = new int[1024];
+    private int size;
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        if (after == null || after.getClaimId() == null) return;
+        lock.writeLock().lock();
+        try {
+            int row = rowOf.get(after.getClaimId(), NONE);
+            if (row == NONE) {
+                if (size == billed.length) grow(size * 2);
+                row = size++;
+                rowOf.put(after.getClaimId(), row);
+            }
+            billed[row] = after.getTotalBillAmount();
+            paid[row] = after.getInsurancePays();
+            provider[row] = providers.encode(after.getInsuranceProvider());
+            doctor[row] = doctors.encode(after.getDoctorName());
+            status[row] = (byte) Math.min(statuses.encode(after.getStatus()) + 1, 255);
+            int day = after.getDateFiled() == null ? NO_DAY : (int) after.getDateFiled().toEpochDay();
+            filedDay[row] = day;
+            if (day != NO_DAY) {
+                minDay = Math.min(minDay, day);
+                maxDay = Math.max(maxDay, day);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowOf.clear();
+            providers.clear();
+            doctors.clear();
+            statuses.clear();
+            size = 0;
+            minDay = Integer.MAX_VALUE;
+            maxDay = Integer.MIN_VALUE;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // providerName == null covers all providers; from / to (inclusive) bound the filing date
+    public List<AnalyticsGroup> groupBy(GroupBy groupBy, String providerName, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int providerCode = providerName == null ? NONE : providers.codeOf(providerName);
+            if (providerName != null && providerCode == NONE) return List.of();
+            Scan scan = new Scan(groupBy, providerCode,
+                from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                to == null ? Integer.MAX_VALUE : (int) to.toEpochDay());
+
+            int chunks = (size + SCAN_CHUNK - 1) / SCAN_CHUNK;
+            Totals totals = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(c -> scan.run(c * SCAN_CHUNK, Math.min(size, (c + 1) * SCAN_CHUNK)))
+                .reduce(Totals::merge)
+                .orElseGet(() -> new Totals(scan.groups));
+            return scan.toGroups(totals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int rows() {
+        return size;
+    }
+
+    private void grow(int capacity) {
+        billed = Arrays.copyOf(billed, capacity);
+        paid = Arrays.copyOf(paid, capacity);
+        provider = Arrays.copyOf(provider, capacity);
+        doctor = Arrays.copyOf(doctor, capacity);
+        status = Arrays.copyOf(status, capacity);
+        filedDay = Arrays.copyOf(filedDay, capacity);
+    }
+
+    // One query's filters and group mapping; run() is called per chunk under the read lock
+    private final class Scan {
+        final GroupBy groupBy;
+        final int providerCode;
+        final int fromDay;
+        final int toDay;
+        final int groups;
+        // MONTH: epoch day - minDay -> month group, built once per query
+        final int[] monthOfDay;
+        final List<String> monthKeys = new ArrayList<>();
+
+        Scan(GroupBy groupBy, int providerCode, int fromDay, int toDay) {
+            this.groupBy = groupBy;
+            this.providerCode = providerCode;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            if (groupBy == GroupBy.MONTH) {
+                int span = maxDay < minDay ? 0 : maxDay - minDay + 1;
+                monthOfDay = new int[span];
+                LocalDate previous = null;
+                for (int d = 0; d < span; d++) {
+                    LocalDate date = LocalDate.ofEpochDay(minDay + d);
+                    if (previous == null || date.getMonthValue() != previous.getMonthValue()) {
+                        monthKeys.add(String.format("%04d-%02d", date.getYear(), date.getMonthValue()));
+                    }
+                    monthOfDay[d] = monthKeys.size() - 1;
+                    previous = date;
+                }
+                groups = monthKeys.size();
+            } else {
+                monthOfDay = null;
+                // Slot 0 collects claims without a doctor / status
+                groups = (groupBy == GroupBy.DOCTOR ? doctors.size() : statuses.size()) + 1;
+            }
+        }
+
+        Totals run(int start, int end) {
+            Totals t = new Totals(groups);
+            for (int r = start; r < end; r++) {
+                if (providerCode != NONE && provider[r] != providerCode) continue;
+                int day = filedDay[r];
+                if (day < fromDay || day > toDay) continue;
+                int g;
+                switch (groupBy) {
+                    case STATUS: g = status[r] & 0xFF; break;
+                    case DOCTOR: g = doctor[r] + 1; break;
+                    default:
+                        if (day == NO_DAY) continue;
+                        g = monthOfDay[day - minDay];
+                }
+                t.counts[g]++;
+                t.billed[g] += billed[r];
+                t.paid[g] += paid[r];
+            }
+            return t;
+        }
+
+        List<AnalyticsGroup> toGroups(Totals totals) {
+            List<AnalyticsGroup> result = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                if (totals.counts[g] == 0) continue;
+                String key;
+                switch (groupBy) {
+                    case STATUS: key = g == 0 ? "UNKNOWN" : statuses.nameOf(g - 1); break;
+                    case DOCTOR: key = g == 0 ? "Unknown" : doctors.nameOf(g - 1); break;
+                    default: key = monthKeys.get(g);
+                }
+                result.add(new AnalyticsGroup(key, totals.counts[g], totals.billed[g], totals.paid[g]));
+            }
+            if (groupBy == GroupBy.DOCTOR) {
+                result.sort(Comparator.comparingDouble(AnalyticsGroup::getBilled).reversed());
+            } else if (groupBy == GroupBy.STATUS) {
+                result.sort(Comparator.comparing(AnalyticsGroup::getKey));
+            }
+            return result;
+        }
+    }
+
+    private static final class Totals {
+        final long[] counts;
+        final double[] billed;
+        final double[] paid;
+
+        Totals(int groups) {
+            counts = new long[groups];
+            billed = new double[groups];
+            paid = new double[groups];
+        }
+
+        Totals merge(Totals other) {
+            for (int g = 0; g < counts.length; g++) {
+                counts[g] += other.counts[g];
+                billed[g] += other.billed[g];
+                paid[g] += other.paid[g];
+            }
+            return this;
+        }
+    }
+
+    // Append-only string <-> code table; null encodes as NONE
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int encode(String name) {
+            if (name == null) return NONE;
+            Integer code = codes.get(name);
+            if (code == null) {
+                code = names.size();
+                codes.put(name, code);
+                names.add(name);
+            }
+            return code;
+        }
+
+        int codeOf(String name) {
+            Integer code = codes.get(name);
+            return code == null ? NONE : code;
+        }
+
+        String nameOf(int code) {
+            return names.get(code);
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        void clear() {
+            codes.clear();
+            names.clear();
+        }
+    }
+}
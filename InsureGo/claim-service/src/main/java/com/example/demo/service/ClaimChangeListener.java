@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+
+// Implemented by in-memory views that must follow every claim write.
+// ClaimService calls onClaimChanged after the writing transaction commits;
+// ClaimViewWarmup calls clear() and then replays every row (before == null) at startup.
+public interface ClaimChangeListener {
+
+    // before == null -> new claim (or startup replay)
+    void onClaimChanged(ClaimState before, ClaimState after);
+
+    void clear();
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+// The requested change no longer applies to the claim: an illegal status transition,
+// or another writer kept winning the race. Controllers answer 409.
+// Retryable conflicts (claim busy, concurrent update) may succeed if the caller tries again;
+// the others (already decided, transition not allowed) will not.
+public class ClaimConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    public ClaimConflictException(String message) {
+        this(message, null, false);
+    }
+
+    public ClaimConflictException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    private ClaimConflictException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public static ClaimConflictException retryable(String message, Throwable cause) {
+        return new ClaimConflictException(message, cause, true);
+    }
+
+    public boolean isRetryable() { return retryable; }
+}
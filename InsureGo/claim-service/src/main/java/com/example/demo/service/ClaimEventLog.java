@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimEvent;
+import com.example.demo.bean.ClaimEventType;
+import com.example.demo.bean.ClaimSnapshot;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.repository.ClaimEventRepository;
+import com.example.demo.repository.ClaimSnapshotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Append-only history of every claim. Audit notes live here instead of being
+// concatenated into Claim.treatmentDescription, so claim rows stay small and listings never load history.
+@Service
+public class ClaimEventLog {
+
+    @Autowired
+    private ClaimEventRepository eventRepository;
+
+    @Autowired
+    private ClaimSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Called by ClaimService.save inside the claim's transaction
+    public ClaimEvent append(Claim saved, ClaimState before, ClaimEventType type, String actor, String notes) {
+        ClaimSnapshot snapshot = before == null
+            ? null
+            : snapshotRepository.findById(saved.getClaimId()).orElse(null);
+        if (snapshot == null) {
+            // New claim, or a claim written before the log existed
+            snapshot = new ClaimSnapshot(saved.getClaimId());
+            entityManager.persist(snapshot);
+        }
+
+        ClaimEvent event = new ClaimEvent();
+        event.setClaimId(saved.getClaimId());
+        event.setSeq(snapshot.getLastSeq() + 1);
+        event.setType(type != null ? type : typeOf(before, saved));
+        event.setFromStatus(before != null ? before.getStatus() : null);
+        event.setToStatus(saved.getStatus());
+        event.setTotalBillAmount(saved.getTotalBillAmount());
+        event.setInsurancePays(saved.getInsurancePays());
+        event.setUserPays(saved.getUserPays());
+        event.setActor(actor);
+        event.setNotes(notes);
+        entityManager.persist(event);
+
+        snapshot.apply(event);
+        return event;
+    }
+
+    // Loads the snapshots of many claims with one IN query, so the append() calls that follow
+    // in the same transaction find them in the persistence context
+    public void preloadSnapshots(Collection<Long> claimIds) {
+        if (!claimIds.isEmpty()) snapshotRepository.findAllById(claimIds);
+    }
+
+    static ClaimEventType typeOf(ClaimState before, Claim after) {
+        if (before == null) return ClaimEventType.CREATED;
+        if (!Objects.equals(before.getStatus(), after.getStatus())) return ClaimEventType.STATUS_CHANGED;
+        double total = after.getTotalBillAmount() != null ? after.getTotalBillAmount() : 0.0;
+        if (before.getTotalBillAmount() != total) return ClaimEventType.BILL_UPDATED;
+        return ClaimEventType.UPDATED;
+    }
+
+    public Optional<ClaimSnapshot> getSnapshot(Long claimId) {
+        return snapshotRepository.findById(claimId);
+    }
+
+    // State of the claim as of event `seq`. Events carry the post-change state,
+    // so this is one indexed lookup on (claim_id, seq) rather than a fold over the history.
+    public Optional<ClaimSnapshot> replay(Long claimId, long seq) {
+        return eventRepository.findByClaimIdAndSeq(claimId, seq).map(event -> {
+            ClaimSnapshot state = new ClaimSnapshot(claimId);
+            state.apply(event);
+            return state;
+        });
+    }
+
+    // One JSON event per line, oldest first, streamed straight from the cursor
+    @Transactional(readOnly = true)
+    public void writeHistoryAsNdjson(Long claimId, OutputStream out) throws IOException {
+        try (Stream<ClaimEvent> events = eventRepository.streamByClaimIdOrderBySeqAsc(claimId)) {
+            Iterator<ClaimEvent> it = events.iterator();
+            while (it.hasNext()) {
+                ClaimEvent event = it.next();
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+                entityManager.detach(event);
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ClaimInstanceLease;
+import com.example.demo.repository.ClaimRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+// Offline monthly reconciliation export: exports/claims/<provider dir>/<yyyy-MM>.csv.gz per provider.
+// Runs on the claim-service instance holding ClaimInstanceLease, the only node writing export files.
+// The file is a sequence of gzip members of CHECKPOINT_ROWS rows each (gunzip / zcat read it as one stream).
+// After every member the file is synced and a checkpoint (last claimId, byte length) is written, so a crashed
+// or interrupted run resumes by truncating to the checkpoint and appending from the next claimId.
+@Component
+public class ClaimExportJob {
+
+    static final Path ROOT = Paths.get("exports", "claims");
+    static final int CHECKPOINT_ROWS = 10_000;
+
+    @Autowired private ClaimExportService exportService;
+    @Autowired private ClaimRepository claimRepository;
+    @Autowired private ClaimInstanceLease instanceLease;
+
+    // Early on the 1st of the month, for the month that just ended
+    @Scheduled(cron = "${claim.export.cron:0 30 2 1 * *}")
+    public void exportPreviousMonth() {
+        if (!instanceLease.isHeld()) return;
+        YearMonth month = YearMonth.now().minusMonths(1);
+        for (String provider : claimRepository.findDistinctInsuranceProviders()) {
+            try {
+                run(provider, month);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Claim export for " + provider + " " + month + " failed (will resume on next run): " + e.getMessage());
+            }
+        }
+    }
+
+    // Exports (or resumes, or just reports a finished) provider-month; returns the checkpoint summary
+    public synchronized Map<String, Object> run(String provider, YearMonth month) throws IOException {
+        Path file = ROOT.resolve(directoryName(provider)).resolve(month + ".csv.gz");
+        Path checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        Files.createDirectories(file.getParent());
+
+        Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+        if (!checkpoint.complete) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Drops a member that was cut off after the last checkpoint
+                channel.truncate(checkpoint.bytes);
+                channel.position(checkpoint.bytes);
+                OutputStream raw = new FilterOutputStream(Channels.newOutputStream(channel)) {
+                    @Override
+                    public void close() {
+                        // members are finished, never close the channel underneath
+                    }
+                };
+
+                Member member = new Member(raw);
+                if (checkpoint.bytes == 0) member.writer.write(ClaimExportService.CSV_HEADER + "\n");
+                Member[] current = {member};
+                exportService.forEachClaim(provider, month, checkpoint.lastClaimId, claim -> {
+                    ClaimExportService.writeCsvRow(current[0].writer, claim);
+                    checkpoint.lastClaimId = claim.getClaimId();
+                    checkpoint.rows++;
+                    if (++current[0].rows == CHECKPOINT_ROWS) {
+                        current[0].finish();
+                        channel.force(false);
+                        checkpoint.bytes = channel.size();
+                        checkpoint.write(checkpointFile);
+                        current[0] = new Member(raw);
+                    }
+                });
+                current[0].finish();
+                channel.force(false);
+                checkpoint.bytes = channel.size();
+                checkpoint.complete = true;
+                checkpoint.write(checkpointFile);
+            }
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("file", file.toString());
+        summary.put("rows", checkpoint.rows);
+        summary.put("lastClaimId", checkpoint.lastClaimId);
+        summary.put("bytes", checkpoint.bytes);
+        summary.put("complete", checkpoint.complete);
+        return summary;
+    }
+
+    // safeName maps "A B" and "A_B" to the same string; the hash of the raw name keeps their files
+    // and checkpoints apart
+    static String directoryName(String provider) {
+        return safeName(provider) + "-" + shortHash(provider);
+    }
+
+    static String shortHash(String provider) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(provider.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String safeName(String provider) {
+        String name = provider.replaceAll("[^A-Za-z0-9._-]", "_");
+        return name.isEmpty() || name.startsWith(".") ? "_" + name : name;
+    }
+
+    // One gzip member
+    private static final class Member {
+        final GZIPOutputStream gzip;
+        final Writer writer;
+        int rows;
+
+        Member(OutputStream out) throws IOException {
+            this.gzip = new GZIPOutputStream(out, 64 * 1024);
+            this.writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        void finish() throws IOException {
+            writer.flush();
+            gzip.finish();
+        }
+    }
+
+    private static final class Checkpoint {
+        long lastClaimId;
+        long bytes;
+        long rows;
+        boolean complete;
+
+        static Checkpoint read(Path file) throws IOException {
+            Checkpoint checkpoint = new Checkpoint();
+            if (!Files.exists(file)) return checkpoint;
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            }
+            checkpoint.lastClaimId = Long.parseLong(props.getProperty("lastClaimId", "0"));
+            checkpoint.bytes = Long.parseLong(props.getProperty("bytes", "0"));
+            checkpoint.rows = Long.parseLong(props.getProperty("rows", "0"));
+            checkpoint.complete = Boolean.parseBoolean(props.getProperty("complete", "false"));
+            return checkpoint;
+        }
+
+        // Written to a temp file and moved into place, so a crash leaves the previous checkpoint intact
+        void write(Path file) throws IOException {
+            Properties props = new Properties();
+            props.setProperty("lastClaimId", String.valueOf(lastClaimId));
+            props.setProperty("bytes", String.valueOf(bytes));
+            props.setProperty("rows", String.valueOf(rows));
+            props.setProperty("complete", String.valueOf(complete));
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
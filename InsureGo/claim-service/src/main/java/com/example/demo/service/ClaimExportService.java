@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.repository.ClaimRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Reconciliation export: a provider's claims (optionally one filing month) in claimId order,
+// read on a forward-only cursor and encoded as CSV one row at a time. Memory use does not depend on row count.
+// Rows carry their claimId, so an export can resume after the last claimId received.
+@Service
+public class ClaimExportService {
+
+    public static final String CSV_HEADER = "claimId,policyNo,userId,insuranceProvider,patientName,doctorId,doctorName,"
+        + "status,dateFiled,totalBillAmount,insurancePays,userPays,treatmentDescription";
+
+    public interface ClaimSink {
+        void accept(Claim claim) throws IOException;
+    }
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // month == null exports every month; returns the number of rows handed to the sink
+    @Transactional(readOnly = true)
+    public long forEachClaim(String provider, YearMonth month, long afterId, ClaimSink sink) throws IOException {
+        long rows = 0;
+        try (Stream<Claim> claims = month == null
+                ? claimRepository.streamByInsuranceProviderAndClaimIdGreaterThanOrderByClaimIdAsc(provider, afterId)
+                : claimRepository.streamByInsuranceProviderAndClaimIdGreaterThanAndDateFiledBetweenOrderByClaimIdAsc(
+                    provider, afterId, month.atDay(1), month.atEndOfMonth())) {
+            Iterator<Claim> it = claims.iterator();
+            while (it.hasNext()) {
+                Claim claim = it.next();
+                sink.accept(claim);
+                entityManager.detach(claim);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    public static void writeCsvRow(Writer out, Claim c) throws IOException {
+        out.write(String.valueOf(c.getClaimId()));
+        field(out, c.getPolicyNo());
+        field(out, c.getUserId());
+        field(out, c.getInsuranceProvider());
+        field(out, c.getPatientName());
+        field(out, c.getDoctorId());
+        field(out, c.getDoctorName());
+        field(out, c.getStatus());
+        field(out, c.getDateFiled());
+        field(out, c.getTotalBillAmount());
+        field(out, c.getInsurancePays());
+        field(out, c.getUserPays());
+        field(out, c.getTreatmentDescription());
+        out.write('\n');
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break; double embedded quotes
+    private static void field(Writer out, Object value) throws IOException {
+        out.write(',');
+        if (value == null) return;
+        String s = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char ch = s.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.HistogramBucket;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-day counters by dateFiled (claims filed, approved, insurer payout) for the last RETAINED_DAYS days,
+// for all claims, per provider and per doctor. Each series is a fixed ring of primitive slots labelled
+// with their epoch day, so old days roll off without any cleanup. Day buckets are summed into
+// week / month buckets when read. Kept in sync from claim writes and rebuilt by ClaimViewWarmup on start.
+@Component
+public class ClaimHistogramStore implements ClaimChangeListener {
+
+    public static final int RETAINED_DAYS = 400;
+
+    public enum Granularity { DAY, WEEK, MONTH }
+
+    private final DayRing all = new DayRing();
+    private final Map<String, DayRing> byProvider = new ConcurrentHashMap<>();
+    private final Map<Long, DayRing> byDoctorId = new ConcurrentHashMap<>();
+    private final Map<String, DayRing> byDoctorName = new ConcurrentHashMap<>();
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        if (before != null) apply(before, -1);
+        if (after != null) apply(after, 1);
+    }
+
+    @Override
+    public void clear() {
+        all.clear();
+        byProvider.clear();
+        byDoctorId.clear();
+        byDoctorName.clear();
+    }
+
+    // provider / doctor narrow the series (doctor is an id when numeric, otherwise a name); neither = all claims
+    public List<HistogramBucket> histogram(String provider, String doctor, Granularity granularity, int days, LocalDate today) {
+        DayRing ring = all;
+        if (provider != null) {
+            ring = byProvider.get(provider);
+        } else if (doctor != null) {
+            ring = doctor.chars().allMatch(Character::isDigit) && !doctor.isEmpty()
+                ? byDoctorId.get(Long.valueOf(doctor))
+                : byDoctorName.get(doctor);
+        }
+
+        int span = Math.max(1, Math.min(days, RETAINED_DAYS));
+        long first = today.toEpochDay() - span + 1;
+        int[] filed = new int[span];
+        int[] approved = new int[span];
+        double[] paid = new double[span];
+        if (ring != null) ring.copy(first, filed, approved, paid);
+
+        List<HistogramBucket> buckets = new ArrayList<>();
+        LocalDate bucketStart = null;
+        long f = 0, a = 0;
+        double p = 0;
+        for (int i = 0; i < span; i++) {
+            LocalDate start = bucketStart(LocalDate.ofEpochDay(first + i), granularity);
+            if (!start.equals(bucketStart)) {
+                if (bucketStart != null) buckets.add(new HistogramBucket(bucketStart, f, a, p));
+                bucketStart = start;
+                f = 0;
+                a = 0;
+                p = 0;
+            }
+            f += filed[i];
+            a += approved[i];
+            p += paid[i];
+        }
+        buckets.add(new HistogramBucket(bucketStart, f, a, p));
+        return buckets;
+    }
+
+    private static LocalDate bucketStart(LocalDate day, Granularity granularity) {
+        switch (granularity) {
+            case WEEK: return day.minusDays(day.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+            case MONTH: return day.withDayOfMonth(1);
+            default: return day;
+        }
+    }
+
+    private void apply(ClaimState state, int sign) {
+        if (state.getDateFiled() == null) return;
+        long day = state.getDateFiled().toEpochDay();
+        boolean approved = "APPROVED".equals(state.getStatus());
+        double paid = approved ? state.getInsurancePays() : 0.0;
+
+        all.add(day, sign, approved, paid);
+        if (state.getInsuranceProvider() != null) {
+            byProvider.computeIfAbsent(state.getInsuranceProvider(), k -> new DayRing()).add(day, sign, approved, paid);
+        }
+        if (state.getDoctorId() != null) {
+            byDoctorId.computeIfAbsent(state.getDoctorId(), k -> new DayRing()).add(day, sign, approved, paid);
+        }
+        if (state.getDoctorName() != null) {
+            byDoctorName.computeIfAbsent(state.getDoctorName(), k -> new DayRing()).add(day, sign, approved, paid);
+        }
+    }
+
+    private static final class DayRing {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final long[] days = new long[RETAINED_DAYS];
+        private final int[] filed = new int[RETAINED_DAYS];
+        private final int[] approved = new int[RETAINED_DAYS];
+        private final double[] paid = new double[RETAINED_DAYS];
+
+        DayRing() {
+            Arrays.fill(days, EMPTY);
+        }
+
+        synchronized void add(long day, int sign, boolean isApproved, double amount) {
+            int slot = (int) Math.floorMod(day, (long) RETAINED_DAYS);
+            if (days[slot] != day) {
+                // Slot holds a newer day (this one rolled off), or this is a removal of a day never counted
+                if (days[slot] > day || sign < 0) return;
+                days[slot] = day;
+                filed[slot] = 0;
+                approved[slot] = 0;
+                paid[slot] = 0;
+            }
+            filed[slot] += sign;
+            if (isApproved) {
+                approved[slot] += sign;
+                paid[slot] += sign * amount;
+            }
+        }
+
+        // Copies the counters of days first .. first + out.length - 1 (zero where a slot holds another day)
+        synchronized void copy(long first, int[] outFiled, int[] outApproved, double[] outPaid) {
+            for (int i = 0; i < outFiled.length; i++) {
+                long day = first + i;
+                int slot = (int) Math.floorMod(day, (long) RETAINED_DAYS);
+                if (days[slot] == day) {
+                    outFiled[i] = filed[slot];
+                    outApproved[i] = approved[slot];
+                    outPaid[i] = paid[slot];
+                }
+            }
+        }
+
+        synchronized void clear() {
+            Arrays.fill(days, EMPTY);
+        }
+    }
+}
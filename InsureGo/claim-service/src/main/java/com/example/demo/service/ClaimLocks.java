@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.util.StripedLocks;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Serializes operations on the same claim within this node (striped by claimId) and retries an
+// attempt that lost an optimistic-lock race, which can then only be a writer on another node.
+@Component
+public class ClaimLocks {
+
+    static final int STRIPES = 256;
+    static final int MAX_ATTEMPTS = 3;
+    static final long LOCK_WAIT_MS = 5000;
+
+    private final StripedLocks locks = new StripedLocks(STRIPES);
+
+    // Each attempt must run in its own transaction (re-reading the claim), so callers must not hold one
+    public <T> T execute(Long claimId, Supplier<T> attempt) {
+        ReentrantLock lock = locks.lockFor(claimId);
+        acquire(lock, "Claim " + claimId);
+        try {
+            return withRetries("Claim " + claimId, attempt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Same for a set of claims (bulk actions): every stripe involved is taken, in stripe order
+    public <T> T executeAll(Collection<Long> claimIds, Supplier<T> attempt) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long id : claimIds) stripes.add(locks.indexFor(id));
+
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = locks.lockAt(stripe);
+                acquire(lock, "One of the " + claimIds.size() + " claims");
+                held.add(lock);
+            }
+            return withRetries(claimIds.size() + " claims", attempt);
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+        }
+    }
+
+    private static void acquire(ReentrantLock lock, String what) {
+        try {
+            if (!lock.tryLock(LOCK_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                throw ClaimConflictException.retryable(what + " is busy, try again", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ClaimConflictException.retryable("Interrupted while waiting for " + what, e);
+        }
+    }
+
+    private static <T> T withRetries(String what, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (i >= MAX_ATTEMPTS) {
+                    throw ClaimConflictException.retryable(what + " changed concurrently, try again", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Streaming anomaly scoring of submitted bills. Keeps rolling statistics per doctor and per policy:
+// an EWMA mean / variance of bill amounts and of claims per filing day. A new bill scores the largest
+// z-score of its amount and of that day's claim count against them, so scoring is two map lookups and
+// some arithmetic. Each profile is an immutable snapshot swapped by CAS, never locked.
+// Learns from claim writes (the first time a claim carries a bill) and is rebuilt by ClaimViewWarmup.
+// scored / flagged are counted there too, from the committed riskScore, so a retried or rolled back
+// adjudication is not counted.
+@Component
+public class ClaimRiskScorer implements ClaimChangeListener {
+
+    static final double AMOUNT_ALPHA = 0.05;
+    static final double RATE_ALPHA = 0.1;
+    // Days without claims are folded into the rate average up to this many at once
+    static final int MAX_GAP_DAYS = 60;
+
+    @Value("${claim.fraud.review-score:4.0}")
+    private double reviewScore = 4.0;
+    @Value("${claim.fraud.min-samples:5}")
+    private int minSamples = 5;
+    @Value("${claim.fraud.idle-days:400}")
+    private int idleDays = 400;
+
+    private final Map<Long, AtomicReference<Profile>> byDoctor = new ConcurrentHashMap<>();
+    private final Map<String, AtomicReference<Profile>> byPolicy = new ConcurrentHashMap<>();
+
+    private final LongAdder scored = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+
+    // Risk score of a bill against the history of its doctor and policy (the claim itself not included yet)
+    public double score(Claim claim) {
+        double amount = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
+        long day = (claim.getDateFiled() != null ? claim.getDateFiled() : LocalDate.now()).toEpochDay();
+
+        double score = 0.0;
+        if (claim.getDoctorId() != null) score = Math.max(score, scoreAgainst(byDoctor.get(claim.getDoctorId()), amount, day));
+        if (claim.getPolicyNo() != null) score = Math.max(score, scoreAgainst(byPolicy.get(claim.getPolicyNo()), amount, day));
+        return Math.round(score * 100.0) / 100.0;
+    }
+
+    // Whether a claim the rules would auto-approve has to go to a reviewer instead
+    public boolean needsReview(double score) {
+        return score >= reviewScore;
+    }
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        boolean billed = after != null && after.getTotalBillAmount() > 0;
+        boolean wasBilled = before != null && before.getTotalBillAmount() > 0;
+        if (!billed || wasBilled) return;
+
+        if (after.getRiskScore() != null) {
+            scored.increment();
+            if (needsReview(after.getRiskScore())) flagged.increment();
+        }
+        if (after.getDateFiled() == null) return;
+
+        double amount = after.getTotalBillAmount();
+        long day = after.getDateFiled().toEpochDay();
+        if (after.getDoctorId() != null) observe(byDoctor.computeIfAbsent(after.getDoctorId(), k -> new AtomicReference<>(Profile.EMPTY)), amount, day);
+        if (after.getPolicyNo() != null) observe(byPolicy.computeIfAbsent(after.getPolicyNo(), k -> new AtomicReference<>(Profile.EMPTY)), amount, day);
+    }
+
+    @Override
+    public void clear() {
+        byDoctor.clear();
+        byPolicy.clear();
+        scored.reset();
+        flagged.reset();
+    }
+
+    // Policies come and go; drop profiles that have not seen a bill for idle-days
+    @Scheduled(fixedDelayString = "${claim.fraud.sweep-ms:3600000}")
+    public void evictIdle() {
+        long oldest = LocalDate.now().toEpochDay() - idleDays;
+        byPolicy.values().removeIf(ref -> ref.get().day < oldest);
+        byDoctor.values().removeIf(ref -> ref.get().day < oldest);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("scored", scored.sum());
+        metrics.put("flagged", flagged.sum());
+        metrics.put("reviewScore", reviewScore);
+        metrics.put("trackedDoctors", byDoctor.size());
+        metrics.put("trackedPolicies", byPolicy.size());
+        return metrics;
+    }
+
+    private double scoreAgainst(AtomicReference<Profile> ref, double amount, long day) {
+        if (ref == null) return 0.0;
+        Profile profile = ref.get();
+        if (profile.count < minSamples) return 0.0;
+        double score = profile.amountZ(amount);
+        if (profile.rateDays >= minSamples) score = Math.max(score, profile.rateZ(day));
+        return score;
+    }
+
+    private static void observe(AtomicReference<Profile> ref, double amount, long day) {
+        Profile current;
+        do {
+            current = ref.get();
+        } while (!ref.compareAndSet(current, current.observe(amount, day)));
+    }
+
+    // Rolling statistics of one doctor or policy. 'day' / 'dayCount' is the latest filing day and its
+    // claim count so far; finished days feed the rate average when a later day shows up.
+    static final class Profile {
+        static final Profile EMPTY = new Profile(0, 0.0, 0.0, Long.MIN_VALUE, 0, 0, 0.0, 0.0);
+
+        final long count;
+        final double mean;
+        final double variance;
+        final long day;
+        final int dayCount;
+        final int rateDays;
+        final double rateMean;
+        final double rateVariance;
+
+        private Profile(long count, double mean, double variance, long day, int dayCount, int rateDays, double rateMean, double rateVariance) {
+            this.count = count;
+            this.mean = mean;
+            this.variance = variance;
+            this.day = day;
+            this.dayCount = dayCount;
+            this.rateDays = rateDays;
+            this.rateMean = rateMean;
+            this.rateVariance = rateVariance;
+        }
+
+        Profile observe(double amount, long filedDay) {
+            // Plain average for the first bills, so the EWMA does not start out pinned to the first one
+            double alpha = Math.max(AMOUNT_ALPHA, 1.0 / (count + 1));
+            double diff = amount - mean;
+            double newMean = mean + alpha * diff;
+            double newVariance = (1 - alpha) * (variance + alpha * diff * diff);
+
+            if (count == 0) return new Profile(1, amount, 0.0, filedDay, 1, 0, 0.0, 0.0);
+            if (filedDay == day) return new Profile(count + 1, newMean, newVariance, day, dayCount + 1, rateDays, rateMean, rateVariance);
+            // Backdated bill: counts for the amount statistics, not for a day that is already closed
+            if (filedDay < day) return new Profile(count + 1, newMean, newVariance, day, dayCount, rateDays, rateMean, rateVariance);
+
+            int days = rateDays;
+            double rMean = rateMean;
+            double rVariance = rateVariance;
+            long gap = Math.min(filedDay - day - 1, MAX_GAP_DAYS);
+            for (long i = -1; i < gap; i++) {
+                double value = i < 0 ? dayCount : 0.0;
+                double a = Math.max(RATE_ALPHA, 1.0 / (days + 1));
+                double d = value - rMean;
+                rMean += a * d;
+                rVariance = (1 - a) * (rVariance + a * d * d);
+                days++;
+            }
+            return new Profile(count + 1, newMean, newVariance, filedDay, 1, days, rMean, rVariance);
+        }
+
+        // Standard deviations are floored so a perfectly regular history does not turn noise into alarms
+        double amountZ(double amount) {
+            double sd = Math.max(Math.sqrt(variance), Math.max(1.0, 0.05 * Math.abs(mean)));
+            return (amount - mean) / sd;
+        }
+
+        double rateZ(long filedDay) {
+            int claimsThatDay = (filedDay == day ? dayCount : 0) + 1;
+            double sd = Math.max(Math.sqrt(rateVariance), 1.0);
+            return (claimsThatDay - rateMean) / sd;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process inverted index over patientName, doctorName and treatmentDescription.
+// Claims are sharded by id; each shard keeps a sorted term dictionary with sorted claimId postings,
+// so a query is a prefix range scan per word plus a postings intersection, newest claims first.
+// Kept in sync from claim writes and rebuilt by ClaimViewWarmup on start.
+@Component
+public class ClaimSearchIndex implements ClaimChangeListener {
+
+    static final int SHARDS = 16;
+    // Shorter query words would expand to most of the dictionary
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_TERM_LENGTH = 32;
+    public static final int MAX_RESULTS = 500;
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    public ClaimSearchIndex() {
+        for (int i = 0; i < SHARDS; i++) shards[i] = new Shard();
+    }
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        ClaimState state = after != null ? after : before;
+        if (state == null || state.getClaimId() == null) return;
+        // Tokenize outside the shard lock
+        Doc doc = after == null ? null : Doc.of(after);
+        shardFor(state.getClaimId()).put(state.getClaimId(), doc);
+    }
+
+    @Override
+    public void clear() {
+        for (Shard shard : shards) shard.clear();
+    }
+
+    // Ids of claims whose indexed text has a word starting with every word of the query,
+    // narrowed by the optional filters. Newest (highest claimId) first.
+    public List<Long> search(String query, String provider, String status, LocalDate from, LocalDate to, int limit) {
+        List<String> words = new ArrayList<>(tokenize(query));
+        if (words.isEmpty()) return List.of();
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        Filter filter = new Filter(provider, status,
+            from == null ? Long.MIN_VALUE : from.toEpochDay(),
+            to == null ? Long.MAX_VALUE : to.toEpochDay());
+
+        long[] merged = Arrays.stream(shards)
+            .parallel()
+            .map(shard -> shard.search(words, filter, max))
+            .flatMapToLong(Arrays::stream)
+            .sorted()
+            .toArray();
+
+        List<Long> ids = new ArrayList<>(Math.min(max, merged.length));
+        for (int i = merged.length - 1; i >= 0 && ids.size() < max; i--) ids.add(merged[i]);
+        return ids;
+    }
+
+    private Shard shardFor(long claimId) {
+        return shards[(int) Math.floorMod(claimId, (long) SHARDS)];
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) tokens.add(lower.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Filter {
+        final String provider;
+        final String status;
+        final long fromDay;
+        final long toDay;
+
+        Filter(String provider, String status, long fromDay, long toDay) {
+            this.provider = provider;
+            this.status = status;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        boolean accepts(Doc doc) {
+            if (provider != null && !provider.equalsIgnoreCase(doc.provider)) return false;
+            if (status != null && !status.equalsIgnoreCase(doc.status)) return false;
+            return doc.filedDay >= fromDay && doc.filedDay <= toDay;
+        }
+    }
+
+    // Indexed terms (sorted, distinct) and filter fields of one claim
+    private static final class Doc {
+        final String[] terms;
+        final String provider;
+        final String status;
+        final long filedDay;
+
+        private Doc(String[] terms, ClaimState state) {
+            this.terms = terms;
+            this.provider = state.getInsuranceProvider();
+            this.status = state.getStatus();
+            this.filedDay = state.getDateFiled() == null ? Long.MIN_VALUE : state.getDateFiled().toEpochDay();
+        }
+
+        static Doc of(ClaimState state) {
+            Set<String> tokens = tokenize(state.getPatientName());
+            tokens.addAll(tokenize(state.getDoctorName()));
+            tokens.addAll(tokenize(state.getTreatmentDescription()));
+            String[] terms = tokens.toArray(new String[0]);
+            Arrays.sort(terms);
+            return new Doc(terms, state);
+        }
+
+        boolean has(String term) {
+            return Arrays.binarySearch(terms, term) >= 0;
+        }
+    }
+
+    // Sorted, distinct claimIds; ids mostly arrive in increasing order, so add() is usually an append
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) return;
+            at = -at - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+    }
+
+    private static final class Shard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+
+        void put(long claimId, Doc doc) {
+            lock.writeLock().lock();
+            try {
+                Doc old = doc == null ? docs.remove(claimId) : docs.put(claimId, doc);
+                if (old != null) {
+                    for (String term : old.terms) {
+                        if (doc != null && doc.has(term)) continue;
+                        Postings postings = terms.get(term);
+                        if (postings == null) continue;
+                        postings.remove(claimId);
+                        if (postings.size == 0) terms.remove(term);
+                    }
+                }
+                if (doc != null) {
+                    for (String term : doc.terms) {
+                        if (old != null && old.has(term)) continue;
+                        terms.computeIfAbsent(term, t -> new Postings()).add(claimId);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                terms.clear();
+                docs.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long[] search(List<String> words, Filter filter, int limit) {
+            lock.readLock().lock();
+            try {
+                long[] candidates = null;
+                for (String word : words) {
+                    long[] matches = prefixMatches(word);
+                    candidates = candidates == null ? matches : intersect(candidates, matches);
+                    if (candidates.length == 0) return candidates;
+                }
+
+                long[] hits = new long[Math.min(limit, candidates.length)];
+                int n = 0;
+                for (int i = candidates.length - 1; i >= 0 && n < hits.length; i--) {
+                    if (filter.accepts(docs.get(candidates[i]))) hits[n++] = candidates[i];
+                }
+                return Arrays.copyOf(hits, n);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Union of the postings of every term starting with prefix
+        private long[] prefixMatches(String prefix) {
+            NavigableMap<String, Postings> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+            if (range.isEmpty()) return new long[0];
+            if (range.size() == 1) {
+                Postings only = range.firstEntry().getValue();
+                return Arrays.copyOf(only.ids, only.size);
+            }
+            int total = 0;
+            for (Postings p : range.values()) total += p.size;
+            long[] all = new long[total];
+            int n = 0;
+            for (Postings p : range.values()) {
+                System.arraycopy(p.ids, 0, all, n, p.size);
+                n += p.size;
+            }
+            Arrays.sort(all);
+            int distinct = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) all[distinct++] = all[i];
+            }
+            return Arrays.copyOf(all, distinct);
+        }
+
+        // Probes the larger list by binary search for each id of the smaller one
+        private static long[] intersect(long[] a, long[] b) {
+            long[] small = a.length <= b.length ? a : b;
+            long[] large = small == a ? b : a;
+            long[] out = new long[small.length];
+            int n = 0;
+            for (long id : small) {
+                if (Arrays.binarySearch(large, id) >= 0) out[n++] = id;
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
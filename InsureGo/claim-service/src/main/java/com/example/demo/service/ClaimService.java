@@ -2,25 +2,316 @@ package com.example.demo.service;
 
 
 import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimEventType;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.ClaimPage;
 import com.example.demo.repository.ClaimRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ClaimService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Batch intake: whole request cap, and claims per transaction (a multiple of hibernate.jdbc.batch_size)
+    public static final int MAX_BATCH_SIZE = 10000;
+    // Bulk verdicts hold every involved claim lock for one transaction
+    public static final int MAX_BULK_VERDICTS = 1000;
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     @Autowired
     private ClaimRepository claimRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private List<ClaimChangeListener> changeListeners;
+
+    @Autowired
+    private ProviderMetricsStore providerMetricsStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AdjudicationEngine adjudicationEngine;
+
+    @Autowired
+    private ContentAddressedStore contentStore;
+
+    @Autowired
+    private ClaimEventLog eventLog;
+
+    @Autowired
+    private ClaimLocks claimLocks;
+
+    @Autowired
+    private ClaimSearchIndex searchIndex;
+
+    // All claim writes go through here so the in-memory views and the event log see every change.
+    // Listeners are notified only once the surrounding transaction commits.
+    @Transactional
+    public Claim save(Claim claim) {
+        return save(claim, null, null, null);
+    }
+
+    // type == null derives the event type from the before/after state
+    @Transactional
+    public Claim save(Claim claim, ClaimEventType type, String actor, String notes) {
+        ClaimState before = claim.persistedState();
+        if (before != null) {
+            ClaimStatusFlow.checkTransition(claim.getClaimId(), before.getStatus(), claim.getStatus());
+        }
+        // Updates are flushed right away so a stale write fails on the version check before the event is appended
+        Claim saved = before == null ? claimRepository.save(claim) : claimRepository.saveAndFlush(claim);
+        recordChange(saved, before, type, actor, notes);
+        return saved;
+    }
+
+    // Event log entry + view notification for a claim that is (or is about to be) written
+    private void recordChange(Claim saved, ClaimState before, ClaimEventType type, String actor, String notes) {
+        eventLog.append(saved, before, type, actor, notes);
+        ClaimState after = ClaimState.of(saved);
+        saved.markPersisted(after);
+        publishAfterCommit(before, after);
+    }
+
+    // Load-modify-save of one claim: serialized per claim on this node, each attempt in a fresh
+    // transaction, retried when another node updated the claim first. Not for use inside a transaction.
+    public Optional<Claim> update(Long claimId, Consumer<Claim> change, String actor, String notes) {
+        return update(claimId, null, change, actor, notes);
+    }
+
+    // Same, recording the change under an explicit event type (null derives it)
+    public Optional<Claim> update(Long claimId, ClaimEventType type, Consumer<Claim> change, String actor, String notes) {
+        return claimLocks.execute(claimId, () -> transactionTemplate.execute(status ->
+            claimRepository.findById(claimId).map(claim -> {
+                change.accept(claim);
+                return save(claim, type, actor, notes);
+            })));
+    }
+
+    // Reviewer note on a claim without changing it; goes to the claim's event log
+    public Optional<Claim> addNote(Long claimId, String notes, String actor) {
+        return update(claimId, ClaimEventType.NOTE_ADDED, claim -> { }, actor, notes);
+    }
+
+    // Provider decision on a claim that is not decided yet, with the provider's co-pay split
+    public Optional<Claim> applyVerdict(Long claimId, String verdict, String reviewedBy, String notes) {
+        String status = ClaimStatusFlow.normalize(verdict);
+        return update(claimId, claim -> {
+            ClaimStatusFlow.checkVerdict(claimId, claim.getStatus(), status);
+            claim.setStatus(status);
+            adjudicationEngine.applyVerdict(claim, status);
+        }, reviewedBy, notes);
+    }
+
+    // Same verdict for many claims: one IN query to load them, one flush that goes out as JDBC batches
+    // (claim updates, event inserts, snapshot updates). Claims that cannot take the verdict are reported
+    // per item and left unchanged; the others commit together.
+    public List<BatchItemResult> applyVerdicts(List<Long> claimIds, String verdict, String reviewedBy, String notes) {
+        String status = ClaimStatusFlow.normalize(verdict);
+        ClaimStatusFlow.requireVerdict(status);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : claimIds) {
+            if (id != null) ids.add(id);
+        }
+        if (ids.isEmpty()) return applyVerdictsChunk(claimIds, Map.of(), status, reviewedBy, notes);
+
+        return claimLocks.executeAll(ids, () -> transactionTemplate.execute(tx -> {
+            Map<Long, Claim> claims = new HashMap<>();
+            for (Claim claim : claimRepository.findAllById(ids)) claims.put(claim.getClaimId(), claim);
+            eventLog.preloadSnapshots(claims.keySet());
+            List<BatchItemResult> results = applyVerdictsChunk(claimIds, claims, status, reviewedBy, notes);
+            claimRepository.flush();
+            return results;
+        }));
+    }
+
+    private List<BatchItemResult> applyVerdictsChunk(List<Long> claimIds, Map<Long, Claim> claims, String status, String reviewedBy, String notes) {
+        List<BatchItemResult> results = new ArrayList<>(claimIds.size());
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < claimIds.size(); i++) {
+            Long id = claimIds.get(i);
+            Claim claim = id == null ? null : claims.get(id);
+            if (id == null) {
+                results.add(BatchItemResult.failed(i, null, "Missing claimId"));
+            } else if (!seen.add(id)) {
+                results.add(BatchItemResult.failed(i, id, "Duplicate claimId in request"));
+            } else if (claim == null) {
+                results.add(BatchItemResult.failed(i, id, "Claim not found"));
+            } else {
+                try {
+                    ClaimState before = claim.persistedState();
+                    ClaimStatusFlow.checkVerdict(id, claim.getStatus(), status);
+                    claim.setStatus(status);
+                    adjudicationEngine.applyVerdict(claim, status);
+                    recordChange(claim, before, null, reviewedBy, notes);
+                    results.add(BatchItemResult.ok(i, id, status));
+                } catch (ClaimConflictException e) {
+                    results.add(BatchItemResult.failed(i, id, e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private void publishAfterCommit(ClaimState before, ClaimState after) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyListeners(before, after);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyListeners(before, after);
+            }
+        });
+    }
+
+    private void notifyListeners(ClaimState before, ClaimState after) {
+        for (ClaimChangeListener listener : changeListeners) {
+            listener.onClaimChanged(before, after);
+        }
+    }
+
+    // Applies the intake rules (auto-approve / 80-20 split or patient defaults) and saves
+    @Transactional
+    public Claim initiate(Claim claim) {
+        prepareNewClaim(claim);
+        return save(claim);
+    }
+
+    // Same rules as initiate(), but persisted in chunks of BATCH_CHUNK_SIZE per transaction
+    // so Hibernate can send JDBC insert batches (Claim ids come from a pooled sequence).
+    // A failing chunk is rolled back and reported per item; other chunks still commit.
+    public List<BatchItemResult> initiateBatch(List<Claim> claims) {
+        List<BatchItemResult> results = new ArrayList<>(claims.size());
+        for (int from = 0; from < claims.size(); from += BATCH_CHUNK_SIZE) {
+            int start = from;
+            List<Claim> chunk = claims.subList(from, Math.min(from + BATCH_CHUNK_SIZE, claims.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> initiateChunk(chunk, start)));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BatchItemResult.failed(start + i, null, "Batch chunk failed: " + e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<BatchItemResult> initiateChunk(List<Claim> chunk, int offset) {
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        List<Claim> saved = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Claim claim = chunk.get(i);
+            if (claim == null) {
+                results.add(BatchItemResult.failed(offset + i, null, "Empty claim entry"));
+            } else if (claim.getClaimId() != null) {
+                results.add(BatchItemResult.failed(offset + i, claim.getClaimId(), "claimId must not be set on new claims"));
+            } else {
+                prepareNewClaim(claim);
+                saved.add(save(claim));
+                results.add(null); // filled in after flush
+            }
+        }
+        entityManager.flush();
+
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Claim claim = saved.get(next++);
+                results.set(i, BatchItemResult.ok(offset + i, claim.getClaimId(), claim.getStatus()));
+            }
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private void prepareNewClaim(Claim claim) {
+        // 1. Set Date if missing
+        if (claim.getDateFiled() == null) {
+            claim.setDateFiled(LocalDate.now());
+        }
+
+        // 2. CHECK: Is this a Doctor Submission? (Amount > 0)
+        Double amount = claim.getTotalBillAmount();
+        
+        if (amount != null && amount > 0) {
+            // Auto-approve / review / reject and the co-pay split come from the provider's rules
+            adjudicationEngine.adjudicate(claim);
+        } else {
+            // 3. PATIENT INITIALIZATION (Empty Claim)
+            // Only set defaults if the frontend didn't send them
+            if (claim.getStatus() == null) claim.setStatus("OPEN");
+            if (claim.getTotalBillAmount() == null) claim.setTotalBillAmount(0.0);
+            if (claim.getInsurancePays() == null) claim.setInsurancePays(0.0);
+            if (claim.getUserPays() == null) claim.setUserPays(0.0);
+            
+            if (claim.getTreatmentDescription() == null) {
+                claim.setTreatmentDescription("Pending Doctor Input");
+            }
+        }
+    }
+
+    // Points the claim at a stored document and releases the document it referenced before.
+    // The new reference is given back if the claim cannot be updated.
+    public Optional<Claim> attachMedicalDocument(Long claimId, String reference) {
+        String[] previous = new String[1];
+        Optional<Claim> saved;
+        try {
+            saved = update(claimId, ClaimEventType.DOCUMENT_ATTACHED, claim -> {
+                previous[0] = claim.getMedicalDocumentPath();
+                claim.setMedicalDocumentPath(reference);
+            }, null, reference);
+        } catch (RuntimeException e) {
+            contentStore.release(reference);
+            throw e;
+        }
+        if (saved.isEmpty()) {
+            contentStore.release(reference);
+        } else if (previous[0] != null) {
+            // Also right when the same file is re-uploaded: put() counted it again, the claim still holds one reference
+            contentStore.release(previous[0]);
+        }
+        return saved;
+    }
+
+    @Transactional
     public Claim submitClaim(Claim claim) {
         claim.setStatus("PENDING");
-        return claimRepository.save(claim);
+        return save(claim);
     }
     public List<Claim> getClaimsByProvider(String providerName) {
         // Assuming your ClaimRepository has this method:
@@ -28,31 +319,19 @@ public class ClaimService {
         return claimRepository.findByInsuranceProvider(providerName);
     }
     public Optional<Claim> updateClaimStatusWithNotes(Long claimId, String status, String notes, String reviewedBy) {
-        return claimRepository.findById(claimId).map(claim -> {
+        return update(claimId, claim -> {
             claim.setStatus(status);
             
-            // Calculate Payout Split only if APPROVED
+            // Calculate Payout Split (provider's co-pay rules)
             if ("APPROVED".equals(status)) {
-                double total = claim.getTotalBillAmount();
-                // Assuming 80% Insurance / 20% User split
-                claim.setInsurancePays(total * 0.80);
-                claim.setUserPays(total * 0.20);
+                adjudicationEngine.applyVerdict(claim, status);
             } else {
-                // REJECTED or other non-approved status
+                // REJECTED or other non-approved status: user pays the full bill
                 claim.setInsurancePays(0.0);
-                // Optional: User pays full bill if rejected, or 0 if bill wasn't finalized.
-                claim.setUserPays(claim.getTotalBillAmount() > 0 ? claim.getTotalBillAmount() : 0.0);
+                double total = claim.getTotalBillAmount() != null ? claim.getTotalBillAmount() : 0.0;
+                claim.setUserPays(total > 0 ? total : 0.0);
             }
-            
-            // Add audit notes
-            String existingNotes = claim.getTreatmentDescription() != null ? claim.getTreatmentDescription() : "";
-            claim.setTreatmentDescription(
-                existingNotes + 
-                String.format(" | Provider Action (%s by %s): %s", status, reviewedBy, notes)
-            );
-            
-            return claimRepository.save(claim);
-        });
+        }, reviewedBy, notes); // audit notes go to the claim's event log
     }
     // Method to fetch high-value claims (e.g., > $500)
     public List<Claim> getHighValueClaims(String providerName, double threshold) {
@@ -62,30 +341,62 @@ public class ClaimService {
             providerName, threshold, "OPEN");
     }
 
-    // Method to calculate simple metrics
+    // Provider metrics come from the incrementally maintained counters (no table scan)
     public Map<String, Long> getProviderMetrics(String providerName) {
-        List<Claim> allClaims = getClaimsByProvider(providerName);
-        
-        long totalClaims = allClaims.size();
-        long claimsToday = allClaims.stream()
-            .filter(c -> c.getDateFiled().equals(LocalDate.now().toString()))
-            .count();
-            
-        Map<String, Long> metrics = new HashMap<>();
-        metrics.put("totalClaims", totalClaims);
-        metrics.put("claimsToday", claimsToday);
-        
-        return metrics;
+        return providerMetricsStore.getMetrics(providerName);
     }
+    // Keyset page ordered by claimId. providerName == null means all providers.
+    public ClaimPage getClaimsPage(String providerName, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long cursor = afterId != null ? afterId : 0L;
+
+        List<Claim> items = providerName == null
+            ? claimRepository.findByClaimIdGreaterThanOrderByClaimIdAsc(cursor, Limit.of(pageSize))
+            : claimRepository.findByInsuranceProviderAndClaimIdGreaterThanOrderByClaimIdAsc(providerName, cursor, Limit.of(pageSize));
+
+        Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).getClaimId() : null;
+        return new ClaimPage(items, nextCursor);
+    }
+
+    // Writes one JSON object per line while the JPA stream is open.
+    // Each row is detached after it is written so the persistence context never grows.
+    @Transactional(readOnly = true)
+    public void writeClaimsAsNdjson(String providerName, OutputStream out) throws IOException {
+        try (Stream<Claim> claims = providerName == null
+                ? claimRepository.streamAllByOrderByClaimIdAsc()
+                : claimRepository.streamByInsuranceProviderOrderByClaimIdAsc(providerName)) {
+            Iterator<Claim> it = claims.iterator();
+            while (it.hasNext()) {
+                Claim claim = it.next();
+                out.write(objectMapper.writeValueAsBytes(claim));
+                out.write('\n');
+                entityManager.detach(claim);
+            }
+        }
+        out.flush();
+    }
+
+    // Full-text lookup from the in-memory index; only the matching page is read from the DB
+    public List<Claim> searchClaims(String query, String provider, String status, LocalDate from, LocalDate to, int limit) {
+        List<Long> ids = searchIndex.search(query, provider, status, from, to, limit);
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Claim> byId = new HashMap<>();
+        for (Claim claim : claimRepository.findAllById(ids)) byId.put(claim.getClaimId(), claim);
+        List<Claim> claims = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Claim claim = byId.get(id);
+            if (claim != null) claims.add(claim);
+        }
+        return claims;
+    }
+
     public List<Claim> getClaimsByUserId(Long userId) {
         return claimRepository.findByUserId(userId);
     }
 
     public Claim updateClaimStatus(Long id, String status) {
-        return claimRepository.findById(id).map(claim -> {
-            claim.setStatus(status);
-            return claimRepository.save(claim);
-        }).orElseThrow(() -> new RuntimeException("Claim not found"));
+        return update(id, claim -> claim.setStatus(status), null, null)
+            .orElseThrow(() -> new RuntimeException("Claim not found"));
     }
     
     public List<Claim> getClaimsByStatus(String status) {
@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.Set;
+
+// Allowed claim status transitions:
+//   OPEN -> PENDING / PENDING_APPROVAL -> APPROVED | REJECTED -> CLOSED
+// OPEN may also be decided directly (auto-adjudication, dashboard approval of open claims).
+// Saving without a status change is always allowed; nothing moves backwards and a verdict is never rewritten.
+public final class ClaimStatusFlow {
+
+    private static final Map<String, Set<String>> NEXT = Map.of(
+        "OPEN", Set.of("PENDING", "PENDING_APPROVAL", "APPROVED", "REJECTED"),
+        "PENDING", Set.of("PENDING_APPROVAL", "APPROVED", "REJECTED"),
+        "PENDING_APPROVAL", Set.of("APPROVED", "REJECTED"),
+        "APPROVED", Set.of("CLOSED"),
+        "REJECTED", Set.of("CLOSED"),
+        "CLOSED", Set.of()
+    );
+
+    private ClaimStatusFlow() {}
+
+    public static boolean isKnown(String status) {
+        return status != null && NEXT.containsKey(status);
+    }
+
+    // Claims without a status (legacy rows) may take any known status
+    public static boolean isAllowed(String from, String to) {
+        if (from == null ? to == null : from.equals(to)) return true;
+        if (!isKnown(to)) return false;
+        Set<String> next = from == null ? null : NEXT.get(from);
+        return next == null || next.contains(to);
+    }
+
+    public static boolean isDecided(String status) {
+        return "APPROVED".equals(status) || "REJECTED".equals(status) || "CLOSED".equals(status);
+    }
+
+    public static void checkTransition(Long claimId, String from, String to) {
+        if (!isAllowed(from, to)) {
+            throw new ClaimConflictException("Claim " + claimId + " cannot move from " + from + " to " + to);
+        }
+    }
+
+    // A verdict (APPROVED / REJECTED) only applies to a claim that has not been decided yet
+    public static void checkVerdict(Long claimId, String current, String verdict) {
+        requireVerdict(verdict);
+        if (isDecided(current)) {
+            throw new ClaimConflictException("Claim " + claimId + " is already " + current);
+        }
+    }
+
+    public static void requireVerdict(String verdict) {
+        if (!"APPROVED".equals(verdict) && !"REJECTED".equals(verdict)) {
+            throw new IllegalArgumentException("Verdict must be APPROVED or REJECTED");
+        }
+    }
+
+    // Verdict bodies arrive as text/plain or a JSON string; accept both, any case
+    public static String normalize(String status) {
+        if (status == null) return null;
+        String s = status.trim();
+        if (s.length() >= 2 && s.startsWith("\"") && s.endsWith("\"")) s = s.substring(1, s.length() - 1).trim();
+        return s.toUpperCase();
+    }
+}
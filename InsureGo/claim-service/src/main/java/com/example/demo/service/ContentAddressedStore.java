@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.blobstore.BlobCounts;
+import com.example.blobstore.BlobStore;
+import com.example.demo.bean.DocumentBlob;
+import com.example.demo.repository.DocumentBlobRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Deduplicated document storage keyed by SHA-256: identical uploads share one file on disk.
+// Layout: uploads/medical-reports/sha256/<aa>/<bb>/<hash>; claims store the reference "sha256/<aa>/<bb>/<hash>".
+// The store itself is the shared blob-store BlobStore; this adds the transactions and counts references
+// in claim_document_blobs.
+@Service
+public class ContentAddressedStore {
+
+    public static final String PREFIX = BlobStore.PREFIX;
+    public static final Path ROOT = MedicalDocumentStorage.ROOT.resolve("sha256");
+
+    @Autowired private DocumentBlobRepository blobRepository;
+
+    private BlobStore store;
+
+    @PostConstruct
+    void init() {
+        store = new BlobStore(ROOT, new BlobCounts() {
+            @Override
+            public void retain(String hash, long size) { blobRepository.retain(hash, size); }
+
+            @Override
+            public void release(String hash) { blobRepository.release(hash); }
+
+            @Override
+            public List<String> lockUnreferenced(LocalDateTime cutoff) {
+                return blobRepository.findByRefCountAndUpdatedAtBefore(0, cutoff).stream().map(DocumentBlob::getHash).toList();
+            }
+
+            @Override
+            public void delete(String hash) { blobRepository.deleteById(hash); }
+        });
+    }
+
+    // Returns the reference to save on the owning record (counted once)
+    @Transactional
+    public String put(InputStream in) throws IOException {
+        return store.put(in);
+    }
+
+    // Takes ownership of a file whose SHA-256 is already known (e.g. a verified chunked upload)
+    @Transactional
+    public String putFile(Path file, String sha256) throws IOException {
+        return store.putFile(file, sha256);
+    }
+
+    // Drops one reference; the file itself goes away in sweepUnreferenced() once nobody re-used it
+    @Transactional
+    public void release(String reference) {
+        store.release(reference);
+    }
+
+    public Path resolve(String reference) {
+        return store.resolve(reference);
+    }
+
+    // null for legacy (non content-addressed) paths
+    public static String hashOf(String reference) {
+        return BlobStore.hashOf(reference);
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    @Transactional
+    public void sweepUnreferenced() throws IOException {
+        store.sweepUnreferenced(LocalDateTime.now().minusHours(1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Revenue / payout / approval aggregates per doctor, indexed both by doctorId and by doctorName
+// (visit-service asks by id, older callers by name). Maintained from claim writes only.
+@Component
+public class DoctorStatsStore implements ClaimChangeListener {
+
+    private final Map<Long, DoctorCounters> byId = new ConcurrentHashMap<>();
+    private final Map<String, DoctorCounters> byName = new ConcurrentHashMap<>();
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        if (before != null) apply(before, -1);
+        if (after != null) apply(after, 1);
+    }
+
+    @Override
+    public void clear() {
+        byId.clear();
+        byName.clear();
+    }
+
+    public Map<String, Object> getStatsById(Long doctorId) {
+        return toResponse(byId.get(doctorId));
+    }
+
+    public Map<String, Object> getStatsByName(String doctorName) {
+        return toResponse(byName.get(doctorName));
+    }
+
+    private void apply(ClaimState state, int sign) {
+        if (state.getDoctorId() != null) {
+            byId.computeIfAbsent(state.getDoctorId(), k -> new DoctorCounters()).add(state, sign);
+        }
+        if (state.getDoctorName() != null) {
+            byName.computeIfAbsent(state.getDoctorName(), k -> new DoctorCounters()).add(state, sign);
+        }
+    }
+
+    private static Map<String, Object> toResponse(DoctorCounters c) {
+        long approved = c == null ? 0 : c.approved.sum();
+        long rejected = c == null ? 0 : c.rejected.sum();
+        long decided = approved + rejected;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("revenue", c == null ? 0.0 : c.billed.sum());
+        response.put("approvedPayout", c == null ? 0.0 : c.approvedPayout.sum());
+        response.put("totalClaims", c == null ? 0L : c.claims.sum());
+        response.put("approvedClaims", approved);
+        response.put("rejectedClaims", rejected);
+        // Percentage of decided claims (APPROVED + REJECTED) that were approved
+        response.put("approvalRate", decided == 0 ? 0.0 : Math.round(approved * 1000.0 / decided) / 10.0);
+        return response;
+    }
+
+    private static final class DoctorCounters {
+        final LongAdder claims = new LongAdder();
+        final LongAdder approved = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final DoubleAdder billed = new DoubleAdder();
+        final DoubleAdder approvedPayout = new DoubleAdder();
+
+        void add(ClaimState state, int sign) {
+            claims.add(sign);
+            billed.add(sign * state.getTotalBillAmount());
+            if ("APPROVED".equals(state.getStatus())) {
+                approved.add(sign);
+                approvedPayout.add(sign * state.getInsurancePays());
+            } else if ("REJECTED".equals(state.getStatus())) {
+                rejected.add(sign);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import com.example.demo.repository.ClaimRepository;
+import com.example.demo.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Answers "is there already a claim with this (policyNo, amount, dateFiled)?" with as few DB queries as possible.
+//  - an exact multiset of keys for the last 'exact-days' days: a hit is a duplicate, no DB needed
+//  - one Bloom filter per filing day for the last 'bloom-days' days: a miss is a new claim, no DB needed.
+//    That holds because every claim write goes through this instance (ClaimInstanceLease) and the
+//    window is warmed from the claims table on start.
+//  - anything else (Bloom hit without an exact hit, older filing days) falls through to the indexed DB query
+@Component
+public class DuplicateClaimDetector implements ClaimChangeListener {
+
+    @Autowired private ClaimRepository claimRepository;
+
+    @Value("${claim.duplicates.expected-per-day:100000}") private long expectedPerDay;
+    @Value("${claim.duplicates.bloom-fpp:0.01}") private double bloomFpp;
+    @Value("${claim.duplicates.bloom-days:7}") private int bloomDays;
+    @Value("${claim.duplicates.exact-days:2}") private int exactDays;
+
+    private final Map<Long, DayBucket> days = new ConcurrentHashMap<>();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definitelyNew = new LongAdder();
+    private final LongAdder exactHits = new LongAdder();
+    private final LongAdder bloomDbChecks = new LongAdder();
+    private final LongAdder dbChecks = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public boolean isDuplicate(String policyNo, Double amount, LocalDate dateFiled) {
+        checks.increment();
+        if (amount == null) {
+            dbChecks.increment();
+            return claimRepository.existsByPolicyNoAndTotalBillAmountAndDateFiled(policyNo, null, dateFiled);
+        }
+        long day = dateFiled.toEpochDay();
+        DayBucket bucket = inBloomWindow(day) ? days.get(day) : null;
+        String key = key(policyNo, amount);
+
+        if (bucket == null ? inBloomWindow(day) : !bucket.bloom.mightContain(key)) {
+            // No bucket: nothing was filed on that day (the window is fully warmed at startup)
+            definitelyNew.increment();
+            return false;
+        }
+        boolean bloomHit = bucket != null;
+        if (bloomHit && inExactWindow(day) && bucket.exact.containsKey(key)) {
+            exactHits.increment();
+            return true;
+        }
+
+        dbChecks.increment();
+        if (bloomHit) bloomDbChecks.increment();
+        boolean exists = claimRepository.existsByPolicyNoAndTotalBillAmountAndDateFiled(policyNo, amount, dateFiled);
+        if (!exists && bloomHit) falsePositives.increment();
+        return exists;
+    }
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        if (before != null) remove(before);
+        if (after != null) add(after);
+    }
+
+    @Override
+    public void clear() {
+        days.clear();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long total = checks.sum();
+        long bloomHits = exactHits.sum() + bloomDbChecks.sum();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("checks", total);
+        metrics.put("definitelyNew", definitelyNew.sum());
+        metrics.put("exactHits", exactHits.sum());
+        metrics.put("dbChecks", dbChecks.sum());
+        metrics.put("bloomHits", bloomHits);
+        metrics.put("falsePositives", falsePositives.sum());
+        // Share of checks answered from memory, and share of Bloom hits that were not duplicates
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) (total - dbChecks.sum()) / total);
+        metrics.put("falsePositiveRate", bloomHits == 0 ? 0.0 : (double) falsePositives.sum() / bloomHits);
+        metrics.put("trackedDays", days.size());
+        return metrics;
+    }
+
+    private void add(ClaimState state) {
+        if (state.getPolicyNo() == null || state.getDateFiled() == null) return;
+        long day = state.getDateFiled().toEpochDay();
+        if (!inBloomWindow(day)) return;
+        evictExpiredDays();
+
+        DayBucket bucket = days.computeIfAbsent(day, d -> new DayBucket(new BloomFilter(expectedPerDay, bloomFpp)));
+        String key = key(state.getPolicyNo(), state.getTotalBillAmount());
+        bucket.bloom.put(key);
+        if (inExactWindow(day)) bucket.exact.merge(key, 1, Integer::sum);
+    }
+
+    // Bloom filters cannot forget, but the exact set must follow amount changes (OPEN claim 0 -> bill)
+    private void remove(ClaimState state) {
+        if (state.getPolicyNo() == null || state.getDateFiled() == null) return;
+        DayBucket bucket = days.get(state.getDateFiled().toEpochDay());
+        if (bucket == null) return;
+        bucket.exact.computeIfPresent(key(state.getPolicyNo(), state.getTotalBillAmount()), (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private void evictExpiredDays() {
+        long today = LocalDate.now().toEpochDay();
+        days.keySet().removeIf(day -> day <= today - bloomDays);
+        days.forEach((day, bucket) -> {
+            if (day <= today - exactDays && !bucket.exact.isEmpty()) bucket.exact.clear();
+        });
+    }
+
+    private boolean inBloomWindow(long day) {
+        return day > LocalDate.now().toEpochDay() - bloomDays;
+    }
+
+    private boolean inExactWindow(long day) {
+        return day > LocalDate.now().toEpochDay() - exactDays;
+    }
+
+    private static String key(String policyNo, Double amount) {
+        return policyNo + '|' + Double.doubleToLongBits(amount != null ? amount : 0.0);
+    }
+
+    private static final class DayBucket {
+        final BloomFilter bloom;
+        final Map<String, Integer> exact = new ConcurrentHashMap<>();
+
+        DayBucket(BloomFilter bloom) {
+            this.bloom = bloom;
+        }
+    }
+}
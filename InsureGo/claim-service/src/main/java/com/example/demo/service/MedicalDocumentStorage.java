@@ -0,0 +1,179 @@
+package com.example.demo.service;
+
+import com.example.blobstore.BlobStore;
+import com.example.demo.dto.UploadSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Upload handling for claim medical documents. Bytes are streamed (never buffered whole in the heap)
+// into the ContentAddressedStore; large files can be sent as resumable chunks and are
+// handed to the store once their SHA-256 checks out.
+@Service
+public class MedicalDocumentStorage {
+
+    @Autowired private ContentAddressedStore contentStore;
+
+    public static final Path ROOT = Paths.get("uploads", "medical-reports");
+    private static final Path PARTIAL = ROOT.resolve(".partial");
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;  // per transferFrom call
+    private static final Duration ABANDONED_AFTER = Duration.ofHours(24);
+
+    // --- 1. SINGLE-SHOT UPLOAD ---
+    // Returns the content-addressed reference that is stored on the claim
+    public String store(InputStream in) throws IOException {
+        return contentStore.put(in);
+    }
+
+    // --- 2. RESUMABLE UPLOAD ---
+    public UploadSession startSession(String policyNo, String fileName, long totalSize) throws IOException {
+        if (totalSize <= 0) throw new IllegalArgumentException("size must be positive");
+        Files.createDirectories(PARTIAL);
+        String uploadId = UUID.randomUUID().toString();
+
+        Properties meta = new Properties();
+        meta.setProperty("policyNo", policyNo);
+        meta.setProperty("fileName", safeFileName(fileName));
+        meta.setProperty("totalSize", String.valueOf(totalSize));
+        try (Writer out = Files.newBufferedWriter(metaFile(uploadId))) {
+            meta.store(out, null);
+        }
+        Files.createFile(partFile(uploadId));
+        return new UploadSession(uploadId, policyNo, meta.getProperty("fileName"), totalSize, 0);
+    }
+
+    public Optional<UploadSession> getSession(String uploadId) throws IOException {
+        Path metaFile = metaFile(uploadId);
+        if (!Files.exists(metaFile)) return Optional.empty();
+
+        Properties meta = new Properties();
+        try (Reader in = Files.newBufferedReader(metaFile)) {
+            meta.load(in);
+        }
+        long offset = Files.exists(partFile(uploadId)) ? Files.size(partFile(uploadId)) : 0;
+        return Optional.of(new UploadSession(uploadId, meta.getProperty("policyNo"), meta.getProperty("fileName"),
+            Long.parseLong(meta.getProperty("totalSize")), offset));
+    }
+
+    // Appends one chunk at 'offset'. The offset must equal the bytes received so far, otherwise
+    // IllegalStateException (the client should GET the session and resume from its offset).
+    public UploadSession appendChunk(String uploadId, long offset, InputStream in) throws IOException {
+        UploadSession session = getSession(uploadId)
+            .orElseThrow(() -> new NoSuchFileException("Unknown upload " + uploadId));
+
+        try (FileChannel part = FileChannel.open(partFile(uploadId), StandardOpenOption.WRITE);
+             FileLock lock = tryLock(part);
+             ReadableByteChannel src = Channels.newChannel(in)) {
+            if (lock == null) throw new IllegalStateException("Another chunk for this upload is in progress");
+            if (part.size() != offset) {
+                throw new IllegalStateException("Expected offset " + part.size() + " but got " + offset);
+            }
+            long position = offset;
+            long n;
+            while ((n = part.transferFrom(src, position, TRANSFER_CHUNK)) > 0) {
+                position += n;
+                if (position > session.getTotalSize()) {
+                    part.truncate(offset);
+                    throw new IllegalArgumentException("Chunk exceeds the declared file size");
+                }
+            }
+        }
+        return getSession(uploadId).orElseThrow();
+    }
+
+    // Verifies size and SHA-256 of the assembled file, then moves it into the content-addressed store
+    public String complete(String uploadId, String expectedSha256) throws IOException {
+        UploadSession session = getSession(uploadId)
+            .orElseThrow(() -> new NoSuchFileException("Unknown upload " + uploadId));
+        if (!session.isComplete()) {
+            throw new IllegalStateException("Upload incomplete: " + session.getOffset() + " of " + session.getTotalSize() + " bytes");
+        }
+
+        String actual = sha256(partFile(uploadId));
+        if (expectedSha256 == null || !actual.equalsIgnoreCase(expectedSha256.trim())) {
+            throw new IllegalArgumentException("Checksum mismatch: file has sha256 " + actual);
+        }
+
+        String reference = contentStore.putFile(partFile(uploadId), actual);
+        Files.deleteIfExists(metaFile(uploadId));
+        return reference;
+    }
+
+    // Drops resumable uploads nobody touched for a day
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void purgeAbandonedUploads() throws IOException {
+        if (!Files.isDirectory(PARTIAL)) return;
+        FileTime cutoff = FileTime.from(Instant.now().minus(ABANDONED_AFTER));
+        try (Stream<Path> files = Files.list(PARTIAL)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0) Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest = BlobStore.newSha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String safeFileName(String name) {
+        if (name == null || name.isBlank()) return "document";
+        String base = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        base = base.replaceAll("[^A-Za-z0-9._-]", "_");
+        return base.isEmpty() || base.chars().allMatch(c -> c == '.') ? "document" : base;
+    }
+
+    private static Path partFile(String uploadId) {
+        return PARTIAL.resolve(validId(uploadId) + ".part");
+    }
+
+    private static Path metaFile(String uploadId) {
+        return PARTIAL.resolve(validId(uploadId) + ".meta");
+    }
+
+    // Upload ids become file names, so only accept real UUIDs
+    private static String validId(String uploadId) {
+        try {
+            return UUID.fromString(uploadId).toString();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid upload id");
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running claim counters per insurance provider: total, per status and per filing day.
+// Kept up to date from ClaimService writes, so reading metrics never touches the claims table.
+@Component
+public class ProviderMetricsStore implements ClaimChangeListener {
+
+    private final Map<String, ProviderCounters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        if (before != null) apply(before, -1);
+        if (after != null) apply(after, 1);
+    }
+
+    @Override
+    public void clear() {
+        counters.clear();
+    }
+
+    public Map<String, Long> getMetrics(String providerName) {
+        ProviderCounters c = counters.get(providerName);
+        Map<String, Long> metrics = new HashMap<>();
+        metrics.put("totalClaims", c == null ? 0L : c.total.sum());
+        metrics.put("claimsToday", c == null ? 0L : sum(c.byDay, LocalDate.now()));
+        metrics.put("open", c == null ? 0L : sum(c.byStatus, "OPEN"));
+        metrics.put("pending", c == null ? 0L : sum(c.byStatus, "PENDING_APPROVAL"));
+        metrics.put("approved", c == null ? 0L : sum(c.byStatus, "APPROVED"));
+        metrics.put("rejected", c == null ? 0L : sum(c.byStatus, "REJECTED"));
+        return metrics;
+    }
+
+    private void apply(ClaimState state, int delta) {
+        if (state.getInsuranceProvider() == null) return;
+        ProviderCounters c = counters.computeIfAbsent(state.getInsuranceProvider(), k -> new ProviderCounters());
+        c.total.add(delta);
+        if (state.getStatus() != null) {
+            c.byStatus.computeIfAbsent(state.getStatus(), k -> new LongAdder()).add(delta);
+        }
+        if (state.getDateFiled() != null) {
+            c.byDay.computeIfAbsent(state.getDateFiled(), k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static <K> long sum(Map<K, LongAdder> map, K key) {
+        LongAdder adder = map.get(key);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    private static final class ProviderCounters {
+        final LongAdder total = new LongAdder();
+        final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        final Map<LocalDate, LongAdder> byDay = new ConcurrentHashMap<>();
+    }
+}
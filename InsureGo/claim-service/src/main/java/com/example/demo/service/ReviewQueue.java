@@ -0,0 +1,279 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.ReviewLease;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Work queue of PENDING_APPROVAL claims, one priority queue per insuranceProvider
+// (largest bill first, then oldest). Reviewers lease the head item instead of polling the full list;
+// leases that are neither completed nor released go back to the queue when they expire.
+// Kept in sync from claim writes and rebuilt by ClaimViewWarmup on start. Only correct because claim-service
+// runs as a single instance (ClaimInstanceLease): every claim write and every lease call comes through here.
+@Component
+public class ReviewQueue implements ClaimChangeListener {
+
+    static final String REVIEW_STATUS = "PENDING_APPROVAL";
+    public static final long MAX_LEASE_MS = 30 * 60 * 1000L;
+
+    @Value("${claim.review.lease-ms:300000}")
+    private long defaultLeaseMs = 300000;
+
+    private final Map<String, ProviderQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, LeaseRef> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public void onClaimChanged(ClaimState before, ClaimState after) {
+        boolean wasQueued = before != null && REVIEW_STATUS.equals(before.getStatus());
+        boolean queued = after != null && REVIEW_STATUS.equals(after.getStatus());
+        if (wasQueued && (!queued || !keyOf(before).equals(keyOf(after)))) {
+            String leaseId = queueFor(keyOf(before)).remove(before.getClaimId());
+            if (leaseId != null) leases.remove(leaseId);
+        }
+        if (queued) {
+            queueFor(keyOf(after)).upsert(after);
+        }
+    }
+
+    @Override
+    public void clear() {
+        queues.clear();
+        leases.clear();
+    }
+
+    public Optional<ReviewLease> lease(String provider, String reviewer, Long leaseMs) {
+        return lease(provider, reviewer, leaseMs, System.currentTimeMillis());
+    }
+
+    Optional<ReviewLease> lease(String provider, String reviewer, Long leaseMs, long now) {
+        long ttl = leaseMs == null ? defaultLeaseMs : Math.max(1000, Math.min(leaseMs, MAX_LEASE_MS));
+        String leaseId = UUID.randomUUID().toString();
+        Entry entry = queueFor(keyOf(provider)).leaseHead(leaseId, reviewer, now + ttl);
+        if (entry == null) return Optional.empty();
+        leases.put(leaseId, new LeaseRef(keyOf(provider), entry.claimId));
+        return Optional.of(toLease(provider, entry));
+    }
+
+    // The live lease, or empty if it expired, was released or the claim left the queue
+    public Optional<ReviewLease> find(String leaseId) {
+        LeaseRef ref = leases.get(leaseId);
+        if (ref == null) return Optional.empty();
+        Entry entry = queueFor(ref.provider).leased(ref.claimId, leaseId);
+        return entry == null ? Optional.empty() : Optional.of(toLease(ref.provider, entry));
+    }
+
+    public Optional<ReviewLease> renew(String leaseId, Long leaseMs) {
+        LeaseRef ref = leases.get(leaseId);
+        if (ref == null) return Optional.empty();
+        long ttl = leaseMs == null ? defaultLeaseMs : Math.max(1000, Math.min(leaseMs, MAX_LEASE_MS));
+        Entry entry = queueFor(ref.provider).extend(ref.claimId, leaseId, System.currentTimeMillis() + ttl);
+        return entry == null ? Optional.empty() : Optional.of(toLease(ref.provider, entry));
+    }
+
+    public boolean release(String leaseId) {
+        LeaseRef ref = leases.remove(leaseId);
+        return ref != null && queueFor(ref.provider).requeue(ref.claimId, leaseId);
+    }
+
+    // Claim decided under this lease; drops it now rather than waiting for the change notification
+    public void complete(String leaseId) {
+        LeaseRef ref = leases.remove(leaseId);
+        if (ref != null) queueFor(ref.provider).removeLeased(ref.claimId, leaseId);
+    }
+
+    @Scheduled(fixedDelayString = "${claim.review.lease-sweep-ms:10000}")
+    public void expireLeases() {
+        expireLeases(System.currentTimeMillis());
+    }
+
+    int expireLeases(long now) {
+        int expired = 0;
+        for (ProviderQueue queue : queues.values()) {
+            for (String leaseId : queue.expire(now)) {
+                leases.remove(leaseId);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    public Map<String, Object> getStats(String provider) {
+        ProviderQueue queue = queues.get(keyOf(provider));
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", queue == null ? 0 : queue.queuedCount());
+        stats.put("leased", queue == null ? 0 : queue.leasedCount());
+        return stats;
+    }
+
+    private ProviderQueue queueFor(String key) {
+        return queues.computeIfAbsent(key, k -> new ProviderQueue());
+    }
+
+    private static String keyOf(ClaimState state) {
+        return keyOf(state.getInsuranceProvider());
+    }
+
+    private static String keyOf(String provider) {
+        return provider == null ? "" : provider;
+    }
+
+    private static ReviewLease toLease(String provider, Entry entry) {
+        return new ReviewLease(entry.leaseId, entry.claimId, provider, entry.reviewer, entry.leaseExpiresAt);
+    }
+
+    private static final class LeaseRef {
+        final String provider;
+        final Long claimId;
+
+        LeaseRef(String provider, Long claimId) {
+            this.provider = provider;
+            this.claimId = claimId;
+        }
+    }
+
+    private static final class Entry {
+        final Long claimId;
+        final double amount;
+        final long filedDay;
+        String leaseId;
+        String reviewer;
+        long leaseExpiresAt;
+
+        Entry(ClaimState state) {
+            this.claimId = state.getClaimId();
+            this.amount = state.getTotalBillAmount();
+            this.filedDay = state.getDateFiled() == null ? Long.MAX_VALUE : state.getDateFiled().toEpochDay();
+        }
+    }
+
+    // Largest bill first, then oldest filing date, then lowest id
+    private static final Comparator<Entry> PRIORITY = Comparator
+        .comparingDouble((Entry e) -> -e.amount)
+        .thenComparingLong(e -> e.filedDay)
+        .thenComparingLong(e -> e.claimId);
+
+    // Heap entries are replaced, not updated: a stale heap node (no longer the claim's current entry)
+    // is skipped when it reaches the head, and the heap is compacted when stale nodes pile up.
+    private static final class ProviderQueue {
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(PRIORITY);
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Map<Long, Entry> leased = new HashMap<>();
+
+        synchronized void upsert(ClaimState state) {
+            Entry current = entries.get(state.getClaimId());
+            Entry entry = new Entry(state);
+            entries.put(entry.claimId, entry);
+            if (current != null && current.leaseId != null) {
+                // Still under review; keep the lease on the refreshed entry
+                entry.leaseId = current.leaseId;
+                entry.reviewer = current.reviewer;
+                entry.leaseExpiresAt = current.leaseExpiresAt;
+                leased.put(entry.claimId, entry);
+                return;
+            }
+            heap.add(entry);
+            if (heap.size() > 2 * (entries.size() - leased.size()) + 64) compact();
+        }
+
+        synchronized String remove(Long claimId) {
+            Entry entry = entries.remove(claimId);
+            if (entry == null) return null;
+            leased.remove(claimId);
+            return entry.leaseId;
+        }
+
+        synchronized Entry leaseHead(String leaseId, String reviewer, long expiresAt) {
+            Entry entry;
+            while ((entry = heap.poll()) != null) {
+                if (entries.get(entry.claimId) == entry && entry.leaseId == null) {
+                    entry.leaseId = leaseId;
+                    entry.reviewer = reviewer;
+                    entry.leaseExpiresAt = expiresAt;
+                    leased.put(entry.claimId, entry);
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        synchronized Entry leased(Long claimId, String leaseId) {
+            Entry entry = leased.get(claimId);
+            return entry != null && leaseId.equals(entry.leaseId) ? entry : null;
+        }
+
+        synchronized Entry extend(Long claimId, String leaseId, long expiresAt) {
+            Entry entry = leased(claimId, leaseId);
+            if (entry != null) entry.leaseExpiresAt = expiresAt;
+            return entry;
+        }
+
+        synchronized boolean requeue(Long claimId, String leaseId) {
+            Entry entry = leased(claimId, leaseId);
+            if (entry == null) return false;
+            returnToHeap(entry);
+            return true;
+        }
+
+        synchronized void removeLeased(Long claimId, String leaseId) {
+            if (leased(claimId, leaseId) != null) {
+                leased.remove(claimId);
+                entries.remove(claimId);
+            }
+        }
+
+        synchronized List<String> expire(long now) {
+            List<String> expired = new ArrayList<>();
+            for (Iterator<Entry> it = leased.values().iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.leaseExpiresAt <= now) {
+                    expired.add(entry.leaseId);
+                    it.remove();
+                    clearLease(entry);
+                    heap.add(entry);
+                }
+            }
+            return expired;
+        }
+
+        synchronized int queuedCount() {
+            return entries.size() - leased.size();
+        }
+
+        synchronized int leasedCount() {
+            return leased.size();
+        }
+
+        private void returnToHeap(Entry entry) {
+            leased.remove(entry.claimId);
+            clearLease(entry);
+            heap.add(entry);
+        }
+
+        private static void clearLease(Entry entry) {
+            entry.leaseId = null;
+            entry.reviewer = null;
+            entry.leaseExpiresAt = 0;
+        }
+
+        private void compact() {
+            List<Entry> live = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                if (entry.leaseId == null) live.add(entry);
+            }
+            heap.clear();
+            heap.addAll(live);
+        }
+    }
+}
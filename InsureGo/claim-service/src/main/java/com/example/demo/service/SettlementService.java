@@ -0,0 +1,203 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Settlement;
+import com.example.demo.bean.SettlementLine;
+import com.example.demo.dto.SettlementRow;
+import com.example.demo.repository.ClaimRepository;
+import com.example.demo.repository.SettlementLineRepository;
+import com.example.demo.repository.SettlementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+// Settlement runs over APPROVED claims that are not settled yet:
+//   1. mark: claims up to the run's cutoff id get settlement_id in chunked bulk UPDATEs (one transaction each)
+//   2. total: the run's claims are partitioned by insuranceProvider and summed per provider and doctor,
+//      partitions in parallel on a fork/join pool, each streaming its rows on its own cursor
+//   3. ledger: SettlementLine rows, totals and status COMPLETED are written in one transaction
+// A run key settles at most once. A crashed run is picked up again: marking continues where it stopped
+// and totals are recomputed from the claims' settlement_id, so nothing is counted twice.
+@Service
+public class SettlementService {
+
+    public static final String MANUAL_PREFIX = "manual-";
+    static final int MARK_CHUNK = 5000;
+    static final int PARALLELISM = 4; // each partition holds a DB connection while it streams
+
+    @Autowired private ClaimRepository claimRepository;
+    @Autowired private SettlementRepository settlementRepository;
+    @Autowired private SettlementLineRepository lineRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    // Nightly run keyed by the previous day (on-demand runs use MANUAL_PREFIX keys)
+    @Scheduled(cron = "${claim.settlement.cron:0 0 1 * * *}")
+    public void settleNightly() {
+        try {
+            settle(LocalDate.now().minusDays(1).toString());
+        } catch (RuntimeException e) {
+            System.err.println("Settlement run failed (will resume on next run): " + e.getMessage());
+        }
+    }
+
+    public synchronized Settlement settle(String runKey) {
+        // Finish runs that crashed before starting a new one
+        for (Settlement unfinished : settlementRepository.findByStatusOrderByIdAsc(Settlement.RUNNING)) {
+            if (!unfinished.getRunKey().equals(runKey)) complete(unfinished);
+        }
+
+        Settlement settlement = settlementRepository.findByRunKey(runKey).orElseGet(() -> {
+            Long maxId = claimRepository.findMaxClaimId();
+            return settlementRepository.save(new Settlement(runKey, maxId == null ? 0L : maxId));
+        });
+        return Settlement.COMPLETED.equals(settlement.getStatus()) ? settlement : complete(settlement);
+    }
+
+    public List<Settlement> getRecentSettlements() {
+        return settlementRepository.findTop50ByOrderByIdDesc();
+    }
+
+    public List<SettlementLine> getLines(Long settlementId) {
+        return lineRepository.findBySettlementIdOrderByInsuranceProviderAscIdAsc(settlementId);
+    }
+
+    private Settlement complete(Settlement settlement) {
+        markClaims(settlement);
+        List<ProviderTotals> totals = computeTotals(settlement.getId());
+        return transactionTemplate.execute(status -> writeLedger(settlement.getId(), totals));
+    }
+
+    private void markClaims(Settlement settlement) {
+        long after = 0;
+        while (true) {
+            long from = after;
+            List<Long> ids = claimRepository.findUnsettledApprovedIds(from, settlement.getCutoffClaimId(), Limit.of(MARK_CHUNK));
+            if (ids.isEmpty()) return;
+            transactionTemplate.executeWithoutResult(status -> claimRepository.markSettled(settlement.getId(), ids));
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<ProviderTotals> computeTotals(Long settlementId) {
+        List<String> providers = claimRepository.findSettlementProviders(settlementId);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(PARALLELISM, providers.size())));
+        try {
+            return pool.submit(() -> providers.parallelStream()
+                .map(provider -> transactionTemplate.execute(status -> totalsFor(settlementId, provider)))
+                .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Settlement interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Settlement totals failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ProviderTotals totalsFor(Long settlementId, String provider) {
+        ProviderTotals totals = new ProviderTotals(provider);
+        try (Stream<SettlementRow> rows = claimRepository.streamSettlementRows(settlementId, provider)) {
+            Iterator<SettlementRow> it = rows.iterator();
+            while (it.hasNext()) totals.add(it.next());
+        }
+        return totals;
+    }
+
+    private Settlement writeLedger(Long settlementId, List<ProviderTotals> totals) {
+        Settlement settlement = settlementRepository.findById(settlementId).orElseThrow();
+        if (Settlement.COMPLETED.equals(settlement.getStatus())) return settlement; // completed by another node
+
+        List<SettlementLine> lines = new ArrayList<>();
+        long claims = 0;
+        double billed = 0, insurance = 0, user = 0;
+        for (ProviderTotals provider : totals) {
+            lines.add(provider.total.toLine(settlementId, provider.provider, null, null));
+            for (Map.Entry<DoctorKey, Totals> doctor : provider.byDoctor.entrySet()) {
+                lines.add(doctor.getValue().toLine(settlementId, provider.provider, doctor.getKey().id, doctor.getKey().name));
+            }
+            claims += provider.total.claims;
+            billed += provider.total.billed;
+            insurance += provider.total.insurancePays;
+            user += provider.total.userPays;
+        }
+        lineRepository.saveAll(lines);
+
+        settlement.setClaimCount(claims);
+        settlement.setTotalBilled(billed);
+        settlement.setTotalInsurancePays(insurance);
+        settlement.setTotalUserPays(user);
+        settlement.setStatus(Settlement.COMPLETED);
+        settlement.setCompletedAt(LocalDateTime.now());
+        return settlementRepository.save(settlement);
+    }
+
+    static final class ProviderTotals {
+        final String provider;
+        final Totals total = new Totals();
+        final Map<DoctorKey, Totals> byDoctor = new LinkedHashMap<>();
+
+        ProviderTotals(String provider) {
+            this.provider = provider;
+        }
+
+        void add(SettlementRow row) {
+            total.add(row);
+            byDoctor.computeIfAbsent(new DoctorKey(row.getDoctorId(), row.getDoctorName()), k -> new Totals()).add(row);
+        }
+    }
+
+    static final class Totals {
+        long claims;
+        double billed;
+        double insurancePays;
+        double userPays;
+
+        void add(SettlementRow row) {
+            claims++;
+            billed += row.getTotalBilled();
+            insurancePays += row.getInsurancePays();
+            userPays += row.getUserPays();
+        }
+
+        SettlementLine toLine(Long settlementId, String provider, Long doctorId, String doctorName) {
+            return new SettlementLine(settlementId, provider, doctorId, doctorName, claims, billed, insurancePays, userPays);
+        }
+    }
+
+    // Doctors are told apart by id; claims without a doctorId fall back to the name
+    static final class DoctorKey {
+        final Long id;
+        final String name;
+
+        DoctorKey(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DoctorKey)) return false;
+            DoctorKey other = (DoctorKey) o;
+            return id != null ? id.equals(other.id) : other.id == null && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return id != null ? id.hashCode() : Objects.hashCode(name);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed pool of locks shared by key hash: bounded memory however many keys exist,
+// and two keys only contend when they land on the same stripe.
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int n = 1;
+        while (n < stripes) n <<= 1;
+        this.locks = new ReentrantLock[n];
+        this.mask = n - 1;
+        for (int i = 0; i < n; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock lockFor(long key) {
+        return locks[indexFor(key)];
+    }
+
+    // Callers taking several locks must take them in increasing index order
+    public int indexFor(long key) {
+        // Fibonacci hashing spreads sequential ids across stripes
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+
+    public ReentrantLock lockAt(int index) {
+        return locks[index];
+    }
+
+    public int stripes() {
+        return locks.length;
+    }
+}
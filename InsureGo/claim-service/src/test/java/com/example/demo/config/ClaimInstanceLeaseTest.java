@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import com.example.demo.bean.InstanceLease;
+import com.example.demo.repository.InstanceLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClaimInstanceLeaseTest {
+
+	private final InstanceLeaseRepository repository = mock(InstanceLeaseRepository.class);
+	private final ClaimInstanceLease lease = new ClaimInstanceLease();
+
+	ClaimInstanceLeaseTest() {
+		ReflectionTestUtils.setField(lease, "repository", repository);
+	}
+
+	@Test
+	void refusesToStartWhileAnotherInstanceHoldsTheLease() {
+		when(repository.acquire(eq(ClaimInstanceLease.LEASE_NAME), anyString(), any(), any())).thenReturn(0);
+		when(repository.existsById(ClaimInstanceLease.LEASE_NAME)).thenReturn(true);
+		when(repository.findById(ClaimInstanceLease.LEASE_NAME))
+			.thenReturn(Optional.of(new InstanceLease(ClaimInstanceLease.LEASE_NAME, "node-a:9070:1", LocalDateTime.now().plusSeconds(20))));
+
+		assertThatThrownBy(lease::start).isInstanceOf(IllegalStateException.class).hasMessageContaining("node-a:9070:1");
+		assertThat(lease.isHeld()).isFalse();
+	}
+
+	@Test
+	void createsTheLeaseOnFirstStartAndGivesItBackOnStop() {
+		when(repository.acquire(eq(ClaimInstanceLease.LEASE_NAME), anyString(), any(), any())).thenReturn(0);
+		when(repository.existsById(ClaimInstanceLease.LEASE_NAME)).thenReturn(false);
+
+		lease.start();
+		assertThat(lease.isHeld()).isTrue();
+		verify(repository).saveAndFlush(any(InstanceLease.class));
+
+		lease.stop();
+		assertThat(lease.isHeld()).isFalse();
+		verify(repository).release(eq(ClaimInstanceLease.LEASE_NAME), anyString(), any());
+	}
+
+	@Test
+	void losesTheRaceToCreateTheLease() {
+		when(repository.acquire(eq(ClaimInstanceLease.LEASE_NAME), anyString(), any(), any())).thenReturn(0);
+		when(repository.existsById(ClaimInstanceLease.LEASE_NAME)).thenReturn(false);
+		when(repository.saveAndFlush(any(InstanceLease.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+		assertThatThrownBy(lease::start).isInstanceOf(IllegalStateException.class);
+	}
+}
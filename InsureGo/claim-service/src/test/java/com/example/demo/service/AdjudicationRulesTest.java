@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.AdjudicationPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class AdjudicationRulesTest {
+
+	@Test
+	void defaultsKeepTheAutoApproveBelow500And80_20Split() {
+		AdjudicationRules rules = AdjudicationRules.compile(AdjudicationPolicy.defaults("LIC"));
+
+		assertThat(rules.decide(499.99)).isEqualTo(AdjudicationRules.APPROVE);
+		assertThat(rules.decide(500)).isEqualTo(AdjudicationRules.REVIEW);
+		assertThat(rules.noteFor(rules.match(100))).isEqualTo("Auto-Approved < $500");
+		assertThat(rules.insurancePays(400)).isCloseTo(320.0, within(1e-9));
+		assertThat(rules.userPays(400)).isCloseTo(80.0, within(1e-9));
+	}
+
+	@Test
+	void ruleChainIsEvaluatedInOrderWithProviderSplitAndDeductible() {
+		AdjudicationPolicy policy = AdjudicationPolicy.defaults("Star");
+		policy.setRuleChain("REJECT_ABOVE:100000, APPROVE_BELOW:1000, REVIEW_FROM:1000");
+		policy.setInsuranceShare(0.9);
+		policy.setDeductible(100);
+		AdjudicationRules rules = AdjudicationRules.compile(policy);
+
+		assertThat(rules.decide(150000)).isEqualTo(AdjudicationRules.REJECT);
+		assertThat(rules.decide(999)).isEqualTo(AdjudicationRules.APPROVE);
+		assertThat(rules.decide(1000)).isEqualTo(AdjudicationRules.REVIEW);
+		assertThat(rules.insurancePays(600)).isCloseTo(450.0, within(1e-9));
+		assertThat(rules.userPays(600)).isCloseTo(150.0, within(1e-9));
+		assertThat(rules.insurancePays(50)).isZero();
+	}
+
+	@Test
+	void invalidPoliciesAreRejectedAtCompileTime() {
+		AdjudicationPolicy policy = AdjudicationPolicy.defaults("Bajaj");
+		policy.setRuleChain("APPROVE_UNDER:500");
+		assertThatThrownBy(() -> AdjudicationRules.compile(policy)).isInstanceOf(IllegalArgumentException.class);
+
+		policy.setRuleChain("APPROVE_BELOW:abc");
+		assertThatThrownBy(() -> AdjudicationRules.compile(policy)).isInstanceOf(IllegalArgumentException.class);
+
+		policy.setRuleChain(null);
+		policy.setInsuranceShare(1.5);
+		assertThatThrownBy(() -> AdjudicationRules.compile(policy)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.AnalyticsGroup;
+import com.example.demo.service.ClaimAnalyticsStore.GroupBy;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimAnalyticsStoreTest {
+
+	private static ClaimState claim(long id, String provider, String doctor, String status, double bill, double pays, LocalDate filed) {
+		Claim claim = new Claim();
+		claim.setClaimId(id);
+		claim.setInsuranceProvider(provider);
+		claim.setDoctorName(doctor);
+		claim.setStatus(status);
+		claim.setTotalBillAmount(bill);
+		claim.setInsurancePays(pays);
+		claim.setDateFiled(filed);
+		return ClaimState.of(claim);
+	}
+
+	@Test
+	void groupsAcrossManyScanChunksAndFollowsUpdates() {
+		ClaimAnalyticsStore store = new ClaimAnalyticsStore();
+		LocalDate jan = LocalDate.of(2025, 1, 15);
+		for (long id = 1; id <= 200_000; id++) {
+			String provider = id % 2 == 0 ? "Acme" : "Globe";
+			String doctor = id % 4 == 0 ? "Dr. Rao" : "Dr. Iyer";
+			store.onClaimChanged(null, claim(id, provider, doctor, "OPEN", 100, 0, id % 3 == 0 ? jan.plusMonths(1) : jan));
+		}
+		store.onClaimChanged(claim(2, "Acme", "Dr. Iyer", "OPEN", 100, 0, jan),
+			claim(2, "Acme", "Dr. Iyer", "APPROVED", 100, 80, jan));
+
+		List<AnalyticsGroup> byStatus = store.groupBy(GroupBy.STATUS, "Acme", null, null);
+		assertThat(byStatus).extracting(AnalyticsGroup::getKey).containsExactly("APPROVED", "OPEN");
+		assertThat(byStatus.get(0).getInsurancePays()).isEqualTo(80.0);
+		assertThat(byStatus.get(1).getClaims()).isEqualTo(99_999);
+
+		List<AnalyticsGroup> byDoctor = store.groupBy(GroupBy.DOCTOR, "Acme", null, null);
+		assertThat(byDoctor).extracting(AnalyticsGroup::getKey).containsExactlyInAnyOrder("Dr. Rao", "Dr. Iyer");
+		assertThat(byDoctor.get(0).getClaims()).isEqualTo(50_000);
+
+		List<AnalyticsGroup> byMonth = store.groupBy(GroupBy.MONTH, null, null, null);
+		assertThat(byMonth).extracting(AnalyticsGroup::getKey).containsExactly("2025-01", "2025-02");
+		assertThat(byMonth.get(1).getClaims()).isEqualTo(66_666);
+		assertThat(store.groupBy(GroupBy.MONTH, null, jan.plusMonths(1), null)).hasSize(1);
+		assertThat(store.groupBy(GroupBy.STATUS, "Nobody", null, null)).isEmpty();
+	}
+}
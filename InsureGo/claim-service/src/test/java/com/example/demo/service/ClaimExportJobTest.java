@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimExportJobTest {
+
+	@Test
+	void providersWithTheSameSafeNameGetTheirOwnDirectory() {
+		assertThat(ClaimExportJob.safeName("A B")).isEqualTo(ClaimExportJob.safeName("A_B"));
+		assertThat(ClaimExportJob.directoryName("A B")).isNotEqualTo(ClaimExportJob.directoryName("A_B"));
+		assertThat(ClaimExportJob.directoryName("A B")).matches("A_B-[0-9a-f]{8}");
+		assertThat(ClaimExportJob.directoryName("A B")).isEqualTo(ClaimExportJob.directoryName("A B"));
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimExportServiceTest {
+
+	@Test
+	void writesOneRfc4180RowPerClaim() throws Exception {
+		Claim claim = new Claim();
+		claim.setClaimId(42L);
+		claim.setPolicyNo("POL-1");
+		claim.setInsuranceProvider("Acme, Inc.");
+		claim.setPatientName("Ann \"Annie\" Lee");
+		claim.setStatus("APPROVED");
+		claim.setDateFiled(LocalDate.of(2025, 3, 1));
+		claim.setTotalBillAmount(1200.0);
+		claim.setTreatmentDescription("Line one\nline two");
+
+		StringWriter out = new StringWriter();
+		ClaimExportService.writeCsvRow(out, claim);
+
+		assertThat(out.toString()).isEqualTo(
+			"42,POL-1,,\"Acme, Inc.\",\"Ann \"\"Annie\"\" Lee\",,,APPROVED,2025-03-01,1200.0,,,\"Line one\nline two\"\n");
+		assertThat(ClaimExportService.CSV_HEADER.split(",")).hasSize(13);
+	}
+}
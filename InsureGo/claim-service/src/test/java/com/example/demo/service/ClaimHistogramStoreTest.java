@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.HistogramBucket;
+import com.example.demo.service.ClaimHistogramStore.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimHistogramStoreTest {
+
+	private static ClaimState claim(long id, String status, double pays, LocalDate filed) {
+		Claim claim = new Claim();
+		claim.setClaimId(id);
+		claim.setInsuranceProvider("Acme");
+		claim.setDoctorId(7L);
+		claim.setStatus(status);
+		claim.setInsurancePays(pays);
+		claim.setDateFiled(filed);
+		return ClaimState.of(claim);
+	}
+
+	@Test
+	void countsByFilingDayRollsUpWeeksAndDropsDaysOutsideTheRing() {
+		ClaimHistogramStore store = new ClaimHistogramStore();
+		LocalDate today = LocalDate.of(2025, 3, 12); // a Wednesday
+		store.onClaimChanged(null, claim(1, "OPEN", 0, today));
+		store.onClaimChanged(null, claim(2, "OPEN", 0, today.minusDays(1)));
+		store.onClaimChanged(null, claim(3, "OPEN", 0, today.minusDays(3)));
+		// Same ring slot as today, but long gone
+		store.onClaimChanged(null, claim(4, "OPEN", 0, today.minusDays(ClaimHistogramStore.RETAINED_DAYS)));
+		store.onClaimChanged(claim(2, "OPEN", 0, today.minusDays(1)), claim(2, "APPROVED", 400, today.minusDays(1)));
+
+		List<HistogramBucket> days = store.histogram("Acme", null, Granularity.DAY, 3, today);
+		assertThat(days).extracting(HistogramBucket::getFiled).containsExactly(0L, 1L, 1L);
+		assertThat(days.get(1).getApproved()).isEqualTo(1);
+		assertThat(days.get(1).getPaid()).isEqualTo(400.0);
+
+		List<HistogramBucket> weeks = store.histogram(null, "7", Granularity.WEEK, 7, today);
+		assertThat(weeks).extracting(HistogramBucket::getStart).containsExactly(today.minusDays(9), today.minusDays(2));
+		assertThat(weeks).extracting(HistogramBucket::getFiled).containsExactly(1L, 2L);
+
+		assertThat(store.histogram("Nobody", null, Granularity.MONTH, 30, today))
+			.allSatisfy(b -> assertThat(b.getFiled()).isZero());
+	}
+}
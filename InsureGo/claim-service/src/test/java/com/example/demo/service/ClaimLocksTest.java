@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClaimLocksTest {
+
+	// Stand-in for a claims row with a version column
+	private static class Row {
+		String status = "PENDING_APPROVAL";
+		long version;
+		int verdicts;
+	}
+
+	private static void write(Long id, Row row, long readVersion, String status) {
+		synchronized (row) {
+			if (row.version != readVersion) throw new ObjectOptimisticLockingFailureException(Claim.class, id);
+			row.version++;
+			row.status = status;
+			row.verdicts++;
+		}
+	}
+
+	@Test
+	void concurrentVerdictsOnTheSameClaimsDecideEachClaimExactlyOnce() throws Exception {
+		ClaimLocks locks = new ClaimLocks();
+		int claims = 20;
+		int verdictsPerClaim = 25;
+		Map<Long, Row> rows = new ConcurrentHashMap<>();
+		// Each claim is touched once by "another node" between read and write, forcing a retry
+		Set<Long> staleOnce = ConcurrentHashMap.newKeySet();
+		for (long id = 1; id <= claims; id++) {
+			rows.put(id, new Row());
+			staleOnce.add(id);
+		}
+
+		AtomicInteger decided = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < claims * verdictsPerClaim; i++) {
+			Long id = (long) (i % claims) + 1;
+			String verdict = i % 2 == 0 ? "APPROVED" : "REJECTED";
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					locks.execute(id, () -> {
+						Row row = rows.get(id);
+						long version;
+						String current;
+						synchronized (row) {
+							version = row.version;
+							current = row.status;
+						}
+						ClaimStatusFlow.checkVerdict(id, current, verdict);
+						if (staleOnce.remove(id)) {
+							synchronized (row) { row.version++; }
+						}
+						write(id, row, version, verdict);
+						return verdict;
+					});
+					decided.incrementAndGet();
+				} catch (ClaimConflictException e) {
+					conflicts.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(decided.get()).isEqualTo(claims);
+		assertThat(conflicts.get()).isEqualTo(claims * (verdictsPerClaim - 1));
+		for (Row row : rows.values()) {
+			assertThat(row.verdicts).isEqualTo(1);
+			assertThat(row.status).isIn("APPROVED", "REJECTED");
+		}
+	}
+
+	@Test
+	void givesUpWithAConflictAfterBoundedRetries() {
+		ClaimLocks locks = new ClaimLocks();
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> locks.execute(7L, () -> {
+			attempts.incrementAndGet();
+			throw new ObjectOptimisticLockingFailureException(Claim.class, 7L);
+		})).isInstanceOfSatisfying(ClaimConflictException.class, e -> assertThat(e.isRetryable()).isTrue());
+		assertThat(attempts.get()).isEqualTo(ClaimLocks.MAX_ATTEMPTS);
+	}
+
+	@Test
+	void bulkAndSingleClaimOperationsDoNotDeadlockAndNeverOverlap() throws Exception {
+		ClaimLocks locks = new ClaimLocks();
+		AtomicInteger[] inside = new AtomicInteger[100];
+		for (int i = 0; i < inside.length; i++) inside[i] = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 200; t++) {
+			int seed = t;
+			futures.add(pool.submit(() -> {
+				List<Long> ids = new ArrayList<>();
+				if (seed % 4 == 0) {
+					for (long id = seed % 7; id < 100; id += 7) ids.add(id);
+				} else {
+					ids.add((long) (seed * 31 % 100));
+				}
+				Runnable work = () -> {
+					for (Long id : ids) {
+						if (inside[id.intValue()].incrementAndGet() > 1) overlaps.incrementAndGet();
+					}
+					Thread.yield();
+					for (Long id : ids) inside[id.intValue()].decrementAndGet();
+				};
+				if (ids.size() == 1) {
+					locks.execute(ids.get(0), () -> { work.run(); return null; });
+				} else {
+					locks.executeAll(ids, () -> { work.run(); return null; });
+				}
+				return null;
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(overlaps.get()).isZero();
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimRiskScorerTest {
+
+	private static final LocalDate START = LocalDate.of(2025, 3, 1);
+
+	private static Claim bill(long id, String policyNo, double amount, LocalDate filed) {
+		Claim claim = new Claim();
+		claim.setClaimId(id);
+		claim.setPolicyNo(policyNo);
+		claim.setDoctorId(7L);
+		claim.setTotalBillAmount(amount);
+		claim.setDateFiled(filed);
+		return claim;
+	}
+
+	@Test
+	void learnsEachBillOnceAndFlagsUnusualAmounts() {
+		ClaimRiskScorer scorer = new ClaimRiskScorer();
+		Claim first = bill(1, "POL-1", 200, START);
+		assertThat(scorer.score(first)).isZero(); // no history yet
+
+		for (int i = 0; i < 20; i++) {
+			Claim claim = bill(i + 1, "POL-" + i, 200 + (i % 5) * 10, START.plusDays(i));
+			Claim open = bill(i + 1, claim.getPolicyNo(), 0, claim.getDateFiled());
+			scorer.onClaimChanged(ClaimState.of(open), ClaimState.of(claim));
+			// Later writes of an already billed claim (verdicts, uploads) are not new observations
+			scorer.onClaimChanged(ClaimState.of(claim), ClaimState.of(claim));
+		}
+
+		assertThat(scorer.score(bill(100, "POL-NEW", 220, START.plusDays(20)))).isLessThan(2.0);
+		double risk = scorer.score(bill(101, "POL-NEW", 450, START.plusDays(20)));
+		assertThat(risk).isGreaterThan(4.0);
+		assertThat(scorer.needsReview(risk)).isTrue();
+		assertThat(scorer.getMetrics()).containsEntry("scored", 0L).containsEntry("flagged", 0L).containsEntry("trackedDoctors", 1);
+	}
+
+	@Test
+	void countsScoredAndFlaggedBillsOnlyOnceCommitted() {
+		ClaimRiskScorer scorer = new ClaimRiskScorer();
+		Claim usual = bill(1, "POL-1", 200, START);
+		usual.setRiskScore(1.5);
+		Claim unusual = bill(2, "POL-2", 900, START);
+		unusual.setRiskScore(6.25);
+
+		// Scoring inside an update that may be retried or rolled back counts nothing
+		scorer.score(unusual);
+		scorer.needsReview(6.25);
+		assertThat(scorer.getMetrics()).containsEntry("scored", 0L).containsEntry("flagged", 0L);
+
+		scorer.onClaimChanged(null, ClaimState.of(usual));
+		scorer.onClaimChanged(null, ClaimState.of(unusual));
+		scorer.onClaimChanged(ClaimState.of(unusual), ClaimState.of(unusual));
+		assertThat(scorer.getMetrics()).containsEntry("scored", 2L).containsEntry("flagged", 1L);
+
+		scorer.clear();
+		assertThat(scorer.getMetrics()).containsEntry("scored", 0L).containsEntry("flagged", 0L);
+	}
+
+	@Test
+	void flagsABurstOfClaimsOnOneDay() {
+		ClaimRiskScorer scorer = new ClaimRiskScorer();
+		long id = 1;
+		for (int day = 0; day < 20; day++) {
+			Claim claim = bill(id++, "POL-" + day, 300, START.plusDays(day));
+			scorer.onClaimChanged(null, ClaimState.of(claim));
+		}
+		LocalDate burstDay = START.plusDays(20);
+		for (int i = 0; i < 5; i++) {
+			scorer.onClaimChanged(null, ClaimState.of(bill(id++, "POL-B" + i, 300, burstDay)));
+		}
+		// Same amount as usual, but the doctor's sixth claim of the day against about one a day
+		assertThat(scorer.score(bill(id, "POL-B9", 300, burstDay))).isGreaterThan(4.0);
+		assertThat(scorer.score(bill(id, "POL-B9", 300, burstDay.plusDays(1)))).isLessThan(1.0);
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimSearchIndexTest {
+
+	private static ClaimState claim(long id, String patient, String doctor, String treatment, String provider, String status) {
+		Claim claim = new Claim();
+		claim.setClaimId(id);
+		claim.setPatientName(patient);
+		claim.setDoctorName(doctor);
+		claim.setTreatmentDescription(treatment);
+		claim.setInsuranceProvider(provider);
+		claim.setStatus(status);
+		claim.setDateFiled(LocalDate.of(2025, 1, 1).plusDays(id));
+		return ClaimState.of(claim);
+	}
+
+	@Test
+	void matchesWordPrefixesAcrossFieldsNewestFirstAndFollowsUpdates() {
+		ClaimSearchIndex index = new ClaimSearchIndex();
+		index.onClaimChanged(null, claim(1, "John Smith", "Dr. Rao", "Knee X-Ray", "Acme", "APPROVED"));
+		index.onClaimChanged(null, claim(2, "Johanna Smithers", "Dr. Rao", "Physiotherapy", "Acme", "OPEN"));
+		index.onClaimChanged(null, claim(17, "Ravi Kumar", "Dr. Smith", "Knee surgery", "Globe", "PENDING_APPROVAL"));
+
+		assertThat(index.search("smi", null, null, null, null, 10)).containsExactly(17L, 2L, 1L);
+		assertThat(index.search("joh smi", null, null, null, null, 10)).containsExactly(2L, 1L);
+		assertThat(index.search("KNEE rao", null, null, null, null, 10)).containsExactly(1L);
+		assertThat(index.search("knee", "acme", null, null, null, 10)).containsExactly(1L);
+		assertThat(index.search("smith", null, "open", null, null, 10)).containsExactly(2L);
+		assertThat(index.search("rao", null, null, LocalDate.of(2025, 1, 3), null, 10)).containsExactly(2L);
+		assertThat(index.search("smi", null, null, null, null, 2)).containsExactly(17L, 2L);
+
+		index.onClaimChanged(claim(1, "John Smith", "Dr. Rao", "Knee X-Ray", "Acme", "APPROVED"),
+			claim(1, "John Smith", "Dr. Rao", "Shoulder MRI", "Acme", "APPROVED"));
+		assertThat(index.search("knee", null, null, null, null, 10)).containsExactly(17L);
+		assertThat(index.search("shoulder", null, null, null, null, 10)).containsExactly(1L);
+		assertThat(index.search("x", null, null, null, null, 10)).isEmpty();
+	}
+}
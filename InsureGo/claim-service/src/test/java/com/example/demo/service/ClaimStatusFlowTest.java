@@ -0,0 +1,28 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClaimStatusFlowTest {
+
+	@Test
+	void movesForwardOnlyAndNeverRewritesAVerdict() {
+		assertThat(ClaimStatusFlow.isAllowed("OPEN", "PENDING_APPROVAL")).isTrue();
+		assertThat(ClaimStatusFlow.isAllowed("PENDING_APPROVAL", "APPROVED")).isTrue();
+		assertThat(ClaimStatusFlow.isAllowed("OPEN", "REJECTED")).isTrue();
+		assertThat(ClaimStatusFlow.isAllowed("APPROVED", "APPROVED")).isTrue();
+
+		assertThat(ClaimStatusFlow.isAllowed("PENDING_APPROVAL", "OPEN")).isFalse();
+		assertThat(ClaimStatusFlow.isAllowed("APPROVED", "REJECTED")).isFalse();
+		assertThat(ClaimStatusFlow.isAllowed("OPEN", "PAID")).isFalse();
+
+		// Trying again will not help: the review queue drops such claims
+		assertThatThrownBy(() -> ClaimStatusFlow.checkVerdict(1L, "REJECTED", "APPROVED"))
+			.isInstanceOfSatisfying(ClaimConflictException.class, e -> assertThat(e.isRetryable()).isFalse());
+		assertThatThrownBy(() -> ClaimStatusFlow.checkVerdict(1L, "OPEN", "PENDING"))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThat(ClaimStatusFlow.normalize(" \"approved\"\n")).isEqualTo("APPROVED");
+	}
+}
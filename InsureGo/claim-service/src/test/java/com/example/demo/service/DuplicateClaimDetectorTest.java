@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.repository.ClaimRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DuplicateClaimDetectorTest {
+
+	private final ClaimRepository claimRepository = mock(ClaimRepository.class);
+	private final DuplicateClaimDetector detector = new DuplicateClaimDetector();
+
+	DuplicateClaimDetectorTest() {
+		ReflectionTestUtils.setField(detector, "claimRepository", claimRepository);
+		ReflectionTestUtils.setField(detector, "expectedPerDay", 1000L);
+		ReflectionTestUtils.setField(detector, "bloomFpp", 0.01);
+		ReflectionTestUtils.setField(detector, "bloomDays", 7);
+		ReflectionTestUtils.setField(detector, "exactDays", 2);
+	}
+
+	private void filed(String policyNo, double amount, LocalDate day) {
+		Claim claim = new Claim();
+		claim.setPolicyNo(policyNo);
+		claim.setTotalBillAmount(amount);
+		claim.setDateFiled(day);
+		detector.onClaimChanged(null, ClaimState.of(claim));
+	}
+
+	@Test
+	void answersRecentClaimsFromMemoryWithoutTheDatabase() {
+		LocalDate today = LocalDate.now();
+		filed("POL-1", 120.0, today);
+
+		assertThat(detector.isDuplicate("POL-1", 120.0, today)).isTrue();
+		assertThat(detector.isDuplicate("POL-1", 80.0, today)).isFalse();
+		assertThat(detector.isDuplicate("POL-2", 120.0, today.minusDays(1))).isFalse();
+		verifyNoInteractions(claimRepository);
+
+		assertThat(detector.getMetrics())
+			.containsEntry("checks", 3L).containsEntry("definitelyNew", 2L).containsEntry("dbChecks", 0L)
+			.containsEntry("exactHits", 1L).containsEntry("hitRate", 1.0);
+	}
+
+	@Test
+	void countsFalsePositivesOnlyForBloomHitsTheDatabaseDenies() {
+		LocalDate today = LocalDate.now();
+		LocalDate fourDaysAgo = today.minusDays(4); // Bloom window, past the exact window
+		filed("POL-1", 120.0, fourDaysAgo);
+		when(claimRepository.existsByPolicyNoAndTotalBillAmountAndDateFiled("POL-1", 120.0, fourDaysAgo)).thenReturn(false);
+		when(claimRepository.existsByPolicyNoAndTotalBillAmountAndDateFiled("POL-9", 50.0, today.minusDays(30))).thenReturn(false);
+
+		assertThat(detector.isDuplicate("POL-1", 120.0, fourDaysAgo)).isFalse();
+		// Older than the Bloom window: a plain DB check, not a Bloom answer
+		assertThat(detector.isDuplicate("POL-9", 50.0, today.minusDays(30))).isFalse();
+
+		verify(claimRepository).existsByPolicyNoAndTotalBillAmountAndDateFiled("POL-1", 120.0, fourDaysAgo);
+		assertThat(detector.getMetrics())
+			.containsEntry("dbChecks", 2L).containsEntry("bloomHits", 1L)
+			.containsEntry("falsePositives", 1L).containsEntry("falsePositiveRate", 1.0);
+	}
+}
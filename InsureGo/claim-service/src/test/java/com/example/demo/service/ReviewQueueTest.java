@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Claim;
+import com.example.demo.bean.ClaimState;
+import com.example.demo.dto.ReviewLease;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewQueueTest {
+
+	private static ClaimState pending(long id, double amount, LocalDate filed) {
+		Claim claim = new Claim();
+		claim.setClaimId(id);
+		claim.setInsuranceProvider("Acme");
+		claim.setStatus("PENDING_APPROVAL");
+		claim.setTotalBillAmount(amount);
+		claim.setDateFiled(filed);
+		return ClaimState.of(claim);
+	}
+
+	@Test
+	void leasesLargestOldestFirstAndRequeuesExpiredLeases() {
+		ReviewQueue queue = new ReviewQueue();
+		LocalDate today = LocalDate.of(2025, 3, 10);
+		queue.onClaimChanged(null, pending(1, 800, today));
+		queue.onClaimChanged(null, pending(2, 2500, today));
+		queue.onClaimChanged(null, pending(3, 800, today.minusDays(3)));
+
+		ReviewLease first = queue.lease("Acme", "rev-a", 60_000L, 0).orElseThrow();
+		ReviewLease second = queue.lease("Acme", "rev-b", 60_000L, 0).orElseThrow();
+		ReviewLease third = queue.lease("Acme", "rev-c", 60_000L, 0).orElseThrow();
+		assertThat(first.getClaimId()).isEqualTo(2L);
+		assertThat(second.getClaimId()).isEqualTo(3L);
+		assertThat(third.getClaimId()).isEqualTo(1L);
+		assertThat(queue.lease("Acme", "rev-d", 60_000L, 0)).isEmpty();
+
+		// rev-b gives up, rev-c walks away; only rev-a's claim is decided
+		assertThat(queue.release(second.getLeaseId())).isTrue();
+		assertThat(queue.expireLeases(59_999)).isZero();
+		assertThat(queue.expireLeases(60_000)).isEqualTo(2);
+		assertThat(queue.find(third.getLeaseId())).isEmpty();
+
+		ClaimState decided = pending(2, 2500, today);
+		Claim approved = new Claim();
+		approved.setClaimId(2L);
+		approved.setInsuranceProvider("Acme");
+		approved.setStatus("APPROVED");
+		queue.onClaimChanged(decided, ClaimState.of(approved));
+
+		assertThat(queue.getStats("Acme")).containsEntry("queued", 2).containsEntry("leased", 0);
+		assertThat(queue.lease("Acme", "rev-e", 60_000L, 70_000).orElseThrow().getClaimId()).isEqualTo(3L);
+	}
+}
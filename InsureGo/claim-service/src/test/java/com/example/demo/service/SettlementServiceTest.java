@@ -0,0 +1,199 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.Settlement;
+import com.example.demo.bean.SettlementLine;
+import com.example.demo.dto.SettlementRow;
+import com.example.demo.repository.ClaimRepository;
+import com.example.demo.repository.SettlementLineRepository;
+import com.example.demo.repository.SettlementRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SettlementServiceTest {
+
+	// Stand-in for a claims row
+	private static class Row {
+		final long id;
+		final String provider;
+		final Long doctorId;
+		final String status;
+		final double billed;
+		volatile Long settlementId;
+
+		Row(long id, String status) {
+			this.id = id;
+			this.provider = id % 7 == 0 ? null : (id % 2 == 0 ? "Acme" : "Beta");
+			this.doctorId = id % 11 == 0 ? null : id % 5;
+			this.status = status;
+			this.billed = id % 100 + 1;
+		}
+	}
+
+	// In-memory claims / settlements / ledger lines behind Mockito stubs of the repositories the service uses.
+	// A failed call stores nothing, like a rolled back transaction.
+	private static class Store {
+		final Map<Long, Row> claims = new ConcurrentHashMap<>();
+		final Map<Long, Settlement> settlements = new ConcurrentHashMap<>();
+		final List<SettlementLine> lines = new CopyOnWriteArrayList<>();
+		final AtomicInteger markCalls = new AtomicInteger();
+		volatile int failMarkCall;
+		volatile boolean failLedger;
+
+		void addClaims(long fromId, long toId) {
+			for (long id = fromId; id <= toId; id++) claims.put(id, new Row(id, id % 3 == 0 ? "PENDING_APPROVAL" : "APPROVED"));
+		}
+
+		SettlementService service() {
+			ClaimRepository claimRepository = mock(ClaimRepository.class);
+			when(claimRepository.findMaxClaimId()).thenAnswer(call -> claims.keySet().stream().max(Long::compare).orElse(null));
+			when(claimRepository.findUnsettledApprovedIds(anyLong(), anyLong(), any(Limit.class))).thenAnswer(call -> {
+				long after = call.getArgument(0);
+				long cutoff = call.getArgument(1);
+				Limit limit = call.getArgument(2);
+				return claims.values().stream()
+					.filter(r -> "APPROVED".equals(r.status) && r.settlementId == null && r.id > after && r.id <= cutoff)
+					.map(r -> r.id).sorted().limit(limit.max()).toList();
+			});
+			when(claimRepository.markSettled(any(), anyList())).thenAnswer(call -> {
+				if (markCalls.incrementAndGet() == failMarkCall) throw new IllegalStateException("node crashed");
+				Long settlementId = call.getArgument(0);
+				List<Long> ids = call.getArgument(1);
+				int updated = 0;
+				for (Long id : ids) {
+					Row row = claims.get(id);
+					if ("APPROVED".equals(row.status) && row.settlementId == null) {
+						row.settlementId = settlementId;
+						updated++;
+					}
+				}
+				return updated;
+			});
+			when(claimRepository.findSettlementProviders(any())).thenAnswer(call -> claims.values().stream()
+				.filter(r -> call.getArgument(0).equals(r.settlementId)).map(r -> r.provider).distinct().toList());
+			when(claimRepository.streamSettlementRows(any(), any())).thenAnswer(call -> claims.values().stream()
+				.filter(r -> call.getArgument(0).equals(r.settlementId) && Objects.equals(r.provider, call.getArgument(1)))
+				.map(r -> new SettlementRow(r.doctorId, r.doctorId == null ? "Dr. Walk-in" : null, r.billed, r.billed * 0.8, r.billed * 0.2)));
+
+			SettlementRepository settlementRepository = mock(SettlementRepository.class);
+			when(settlementRepository.findByStatusOrderByIdAsc(any())).thenAnswer(call -> settlements.values().stream()
+				.filter(x -> x.getStatus().equals(call.getArgument(0))).sorted(Comparator.comparing(Settlement::getId)).toList());
+			when(settlementRepository.findByRunKey(any())).thenAnswer(call -> settlements.values().stream()
+				.filter(x -> x.getRunKey().equals(call.getArgument(0))).findFirst());
+			when(settlementRepository.findById(any())).thenAnswer(call -> Optional.ofNullable(settlements.get(call.<Long>getArgument(0))));
+			when(settlementRepository.save(any(Settlement.class))).thenAnswer(call -> {
+				Settlement settlement = call.getArgument(0);
+				if (settlement.getId() == null) ReflectionTestUtils.setField(settlement, "id", settlements.size() + 1L);
+				settlements.put(settlement.getId(), settlement);
+				return settlement;
+			});
+
+			SettlementLineRepository lineRepository = mock(SettlementLineRepository.class);
+			when(lineRepository.saveAll(anyIterable())).thenAnswer(call -> {
+				if (failLedger) throw new IllegalStateException("node crashed");
+				List<SettlementLine> saved = new ArrayList<>();
+				call.<Iterable<SettlementLine>>getArgument(0).forEach(saved::add);
+				lines.addAll(saved);
+				return saved;
+			});
+
+			SettlementService service = new SettlementService();
+			ReflectionTestUtils.setField(service, "claimRepository", claimRepository);
+			ReflectionTestUtils.setField(service, "settlementRepository", settlementRepository);
+			ReflectionTestUtils.setField(service, "lineRepository", lineRepository);
+			ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+			return service;
+		}
+
+		List<SettlementLine> linesOf(Settlement settlement) {
+			return lines.stream().filter(l -> l.getSettlementId().equals(settlement.getId())).toList();
+		}
+	}
+
+	@Test
+	void rerunningACrashedSettlementCountsEveryClaimExactlyOnce() {
+		Store store = new Store();
+		store.addClaims(1, 12_000);
+		SettlementService service = store.service();
+
+		// Crash after the first chunk of claims has been marked
+		store.failMarkCall = 2;
+		assertThatThrownBy(() -> service.settle("2026-10-17")).hasMessageContaining("node crashed");
+		Settlement crashed = store.settlements.values().iterator().next();
+		assertThat(crashed.getStatus()).isEqualTo(Settlement.RUNNING);
+		assertThat(store.claims.values().stream().filter(r -> r.settlementId != null).count()).isEqualTo(SettlementService.MARK_CHUNK);
+
+		// Approved after the run started: past its cutoff, left for the next run
+		store.addClaims(12_001, 12_030);
+		store.failMarkCall = 0;
+		Settlement settled = service.settle("2026-10-17");
+
+		List<Row> expected = store.claims.values().stream().filter(r -> "APPROVED".equals(r.status) && r.id <= 12_000).toList();
+		double expectedBilled = expected.stream().mapToDouble(r -> r.billed).sum();
+		assertThat(settled.getId()).isEqualTo(crashed.getId());
+		assertThat(settled.getStatus()).isEqualTo(Settlement.COMPLETED);
+		assertThat(settled.getClaimCount()).isEqualTo(expected.size());
+		assertThat(settled.getTotalBilled()).isCloseTo(expectedBilled, within(1e-6));
+		assertThat(expected).allMatch(r -> settled.getId().equals(r.settlementId));
+		assertThat(store.claims.values()).filteredOn(r -> r.id > 12_000).allMatch(r -> r.settlementId == null);
+
+		// One provider line per provider; provider lines and doctor lines each add up to the run
+		List<SettlementLine> lines = store.linesOf(settled);
+		assertThat(lines.stream().filter(l -> l.getDoctorId() == null && l.getDoctorName() == null).map(SettlementLine::getInsuranceProvider))
+			.containsExactlyInAnyOrder("Acme", "Beta", null);
+		assertThat(lines.stream().filter(l -> l.getDoctorId() == null && l.getDoctorName() == null).mapToLong(SettlementLine::getClaimCount).sum())
+			.isEqualTo(expected.size());
+		assertThat(lines.stream().filter(l -> l.getDoctorId() != null || l.getDoctorName() != null).mapToLong(SettlementLine::getClaimCount).sum())
+			.isEqualTo(expected.size());
+
+		// Running the completed key again changes nothing
+		assertThat(service.settle("2026-10-17").getClaimCount()).isEqualTo(expected.size());
+		assertThat(store.linesOf(settled)).hasSize(lines.size());
+	}
+
+	@Test
+	void theNextRunFinishesARunThatCrashedWritingItsLedger() {
+		Store store = new Store();
+		store.addClaims(1, 300);
+		SettlementService service = store.service();
+
+		store.failLedger = true;
+		assertThatThrownBy(() -> service.settle("2026-10-17")).hasMessageContaining("node crashed");
+		assertThat(store.lines).isEmpty();
+
+		store.addClaims(301, 330);
+		store.failLedger = false;
+		Settlement next = service.settle(SettlementService.MANUAL_PREFIX + "2026-10-18T09:30");
+
+		Settlement recovered = store.settlements.values().stream().filter(x -> x.getRunKey().equals("2026-10-17")).findFirst().orElseThrow();
+		assertThat(recovered.getStatus()).isEqualTo(Settlement.COMPLETED);
+		assertThat(recovered.getClaimCount()).isEqualTo(200);
+		assertThat(next.getClaimCount()).isEqualTo(20);
+		assertThat(recovered.getClaimCount() + next.getClaimCount())
+			.isEqualTo(store.claims.values().stream().filter(r -> "APPROVED".equals(r.status)).count());
+		assertThat(store.linesOf(recovered).stream().filter(l -> l.getDoctorId() == null && l.getDoctorName() == null).mapToLong(SettlementLine::getClaimCount).sum())
+			.isEqualTo(200);
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void neverForgetsAKeyAndStaysNearTheConfiguredFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("POL-" + i + "|450.0");
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("POL-" + i + "|450.0")).isTrue();
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("OTHER-" + i + "|450.0")) falsePositives++;
+		}
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+	}
+}
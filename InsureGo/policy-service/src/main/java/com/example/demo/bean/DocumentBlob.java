@@ -0,0 +1,33 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Reference count for one content-addressed card image (see StorageService).
+// A blob whose refCount stays at 0 is deleted from disk by the periodic sweep.
+@Entity
+@Table(name = "card_image_blobs", indexes = {
+    @Index(name = "idx_card_blobs_unreferenced", columnList = "ref_count, updated_at")
+})
+public class DocumentBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private long size;
+    private int refCount;
+    private LocalDateTime updatedAt;
+
+    public DocumentBlob() {}
+
+    // --- Getters and Setters ---
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,9 +3,16 @@ package com.example.demo.bean;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name="card") 
+@Table(name="card", indexes = {
+    // Verify / renew look a policy up by its number at every check-in; one card per number
+    @Index(name = "ux_card_policy_number", columnList = "policy_number", unique = true),
+    // Provider customer listing: keyset pages in expiry-date or status order
+    @Index(name = "idx_card_provider_expiry", columnList = "provider_key, expiry_date, id"),
+    @Index(name = "idx_card_provider_status", columnList = "provider_key, status, id")
+})
 public class InsuranceCard {
 
     @Id
@@ -16,6 +23,10 @@ public class InsuranceCard {
     private String policyNumber;
     private String policyName;
     private String insuranceProvider; 
+    // insuranceProvider trimmed and lower-cased, so provider lookups are case-insensitive and indexed.
+    // Kept in sync by setInsuranceProvider; deliberately no getter (not part of the JSON payload).
+    @Column(name = "provider_key")
+    private String providerKey;
     
     private Double coverageAmount; 
     private LocalDate issueDate;    
@@ -41,7 +52,10 @@ public class InsuranceCard {
     public String getPolicyName() { return policyName; }
     public void setPolicyName(String policyName) { this.policyName = policyName; }
     public String getInsuranceProvider() { return insuranceProvider; }
-    public void setInsuranceProvider(String insuranceProvider) { this.insuranceProvider = insuranceProvider; }
+    public void setInsuranceProvider(String insuranceProvider) {
+        this.insuranceProvider = insuranceProvider;
+        this.providerKey = providerKeyOf(insuranceProvider);
+    }
     public Double getCoverageAmount() { return coverageAmount; }
     public void setCoverageAmount(Double coverageAmount) { this.coverageAmount = coverageAmount; }
     public LocalDate getIssueDate() { return issueDate; }
@@ -60,4 +74,8 @@ public class InsuranceCard {
     // --- 🔴 FIX 2: ADD GETTER/SETTER FOR PREMIUM ---
     public Double getPremium() { return premium; }
     public void setPremium(Double premium) { this.premium = premium; }
+
+    public static String providerKeyOf(String insuranceProvider) {
+        return insuranceProvider == null ? null : insuranceProvider.trim().toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
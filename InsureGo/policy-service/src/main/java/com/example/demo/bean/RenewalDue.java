@@ -0,0 +1,38 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// One ACTIVE card that expires within the renewal window (see PolicyExpirySweep).
+// Rebuilt chunk by chunk on every sweep; renew / update / delete drop the card's entry right away.
+@Entity
+@Table(name = "renewal_due", indexes = {
+    @Index(name = "idx_renewal_due_expiry", columnList = "expiry_date, card_id")
+})
+public class RenewalDue {
+
+    @Id
+    private Long cardId;
+
+    private String policyNumber;
+    private Long userId;
+    private String patientName;
+    private String insuranceProvider;
+    private LocalDate expiryDate;
+
+    public RenewalDue() {}
+
+    // --- Getters and Setters ---
+    public Long getCardId() { return cardId; }
+    public void setCardId(Long cardId) { this.cardId = cardId; }
+    public String getPolicyNumber() { return policyNumber; }
+    public void setPolicyNumber(String policyNumber) { this.policyNumber = policyNumber; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getPatientName() { return patientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+    public String getInsuranceProvider() { return insuranceProvider; }
+    public void setInsuranceProvider(String insuranceProvider) { this.insuranceProvider = insuranceProvider; }
+    public LocalDate getExpiryDate() { return expiryDate; }
+    public void setExpiryDate(LocalDate expiryDate) { this.expiryDate = expiryDate; }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of a chunked sweep over the card table: the run's business date, the id range it covers
+// (cards up to maxId, fixed when the run starts) and the last id committed. A restarted node resumes
+// after lastId; @Version stops two nodes from sweeping the same run at once.
+@Entity
+@Table(name = "sweep_checkpoints")
+public class SweepCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private LocalDate runDate;
+    private long lastId;
+    private long maxId;
+    private long expiredCount;
+    private long renewalDueCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    @Version
+    private long version;
+
+    public SweepCheckpoint() {}
+
+    public SweepCheckpoint(String name) {
+        this.name = name;
+    }
+
+    public void start(LocalDate runDate, long maxId) {
+        this.runDate = runDate;
+        this.maxId = maxId;
+        this.lastId = 0;
+        this.expiredCount = 0;
+        this.renewalDueCount = 0;
+        this.startedAt = LocalDateTime.now();
+        this.completedAt = null;
+    }
+
+    public void advance(long lastId, int expired, int renewalDue) {
+        this.lastId = lastId;
+        this.expiredCount += expired;
+        this.renewalDueCount += renewalDue;
+    }
+
+    public void complete() {
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public boolean isCompleted() { return completedAt != null; }
+
+    // --- Getters ---
+    public String getName() { return name; }
+    public LocalDate getRunDate() { return runDate; }
+    public long getLastId() { return lastId; }
+    public long getMaxId() { return maxId; }
+    public long getExpiredCount() { return expiredCount; }
+    public long getRenewalDueCount() { return renewalDueCount; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public long getVersion() { return version; }
+}
@@ -1,13 +1,45 @@
 package com.example.demo.config;
 
+import com.example.demo.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
 @Configuration
 public class AppConfig {
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-}
\ No newline at end of file
+
+    // Every policy-service instance needs its own node id (0-1023) for policy numbers to stay unique.
+    // Outside the dev profile policy.id.node-id is required: a hash of host and port can collide.
+    // In dev (the default profile) one is derived from host name and port.
+    @Bean
+    public SnowflakeIdGenerator policyIdGenerator(
+            @Value("${policy.id.node-id:-1}") int nodeId,
+            @Value("${server.port:8080}") int port,
+            Environment environment) {
+        if (nodeId < 0) {
+            if (!environment.acceptsProfiles(Profiles.of("dev"))) {
+                throw new IllegalStateException("policy.id.node-id must be set to a node id unique to this instance (0-"
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ") outside the dev profile");
+            }
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "localhost";
+            }
+            nodeId = Math.floorMod((host + ":" + port).hashCode(), SnowflakeIdGenerator.MAX_NODE_ID + 1);
+            System.out.println("policy.id.node-id not set, using derived node id " + nodeId);
+        }
+        return new SnowflakeIdGenerator(nodeId);
+    }
+}
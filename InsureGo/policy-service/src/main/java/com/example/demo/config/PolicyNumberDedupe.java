@@ -0,0 +1,76 @@
+package com.example.demo.config;
+
+import com.example.demo.bean.InsuranceCard;
+import com.example.demo.repository.InsuranceRepository;
+import com.example.demo.service.InsuranceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Policy numbers were not unique before ux_card_policy_number: every uploaded card was saved as "PENDING"
+// and POL-<millis> numbers could clash. ddl-auto cannot create the unique index over such rows (it only
+// logs the failure), so before the web server starts: keep each number on its oldest card, give the other
+// cards a fresh number, then create the index if it is missing. No index, no start.
+@Component
+public class PolicyNumberDedupe implements SmartLifecycle {
+
+    static final String INDEX_NAME = "ux_card_policy_number";
+
+    @Autowired private InsuranceRepository repository;
+    @Autowired private InsuranceService service;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        int renumbered = renumberDuplicates();
+        if (renumbered > 0) {
+            System.out.println("Renumbered " + renumbered + " cards that shared a policy number");
+        }
+        ensureUniqueIndex();
+        running = true;
+    }
+
+    int renumberDuplicates() {
+        int renumbered = 0;
+        for (String number : repository.findDuplicatePolicyNumbers()) {
+            List<InsuranceCard> cards = repository.findByPolicyNumberOrderByIdAsc(number);
+            for (InsuranceCard card : cards.subList(1, cards.size())) {
+                String fresh = number.startsWith("PENDING") ? service.newPlaceholderNumber() : service.newPolicyNumber();
+                System.out.println("Card " + card.getId() + " shared policy number " + number + " with card "
+                    + cards.get(0).getId() + "; renumbered to " + fresh);
+                card.setPolicyNumber(fresh);
+                repository.save(card);
+                renumbered++;
+            }
+        }
+        return renumbered;
+    }
+
+    private void ensureUniqueIndex() {
+        Integer present = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() "
+                + "AND table_name = 'card' AND index_name = ?", Integer.class, INDEX_NAME);
+        if (present != null && present > 0) return;
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX " + INDEX_NAME + " ON card (policy_number)");
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not create " + INDEX_NAME + "; policy lookups need unique numbers", e);
+        }
+        System.out.println("Created " + INDEX_NAME);
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Before the web server
+    @Override
+    public int getPhase() { return -1; }
+}
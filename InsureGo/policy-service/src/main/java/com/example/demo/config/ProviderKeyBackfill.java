@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.InsuranceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Cards saved before the provider_key column existed have it null and would not show up in the
+// provider customer listing; fill it in from insuranceProvider before the web server starts.
+@Component
+public class ProviderKeyBackfill implements SmartLifecycle {
+
+    @Autowired private InsuranceRepository repository;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        int updated = repository.backfillProviderKeys();
+        if (updated > 0) {
+            System.out.println("provider_key filled in for " + updated + " cards");
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() { running = false; }
+
+    @Override
+    public boolean isRunning() { return running; }
+
+    // Before the web server
+    @Override
+    public int getPhase() { return -1; }
+}
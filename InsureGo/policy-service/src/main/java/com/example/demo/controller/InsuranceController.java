@@ -6,22 +6,33 @@ import com.example.demo.repository.InsuranceRepository;
 import com.example.demo.repository.InsurancePlanRepository; 
 import com.example.demo.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/insurance")
 public class InsuranceController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired private InsuranceService service;
     @Autowired private InsuranceRepository repository;      // For Active User Policies (Wallet)
     @Autowired private InsurancePlanRepository planRepository; // For Marketplace Plans (Menu)
+    @Autowired private PolicyVerificationCache verificationCache;
+    @Autowired private PlanCatalog planCatalog;
+    @Autowired private PolicyExpirySweep expirySweep;
 
     // ==========================================
     // 🛒 MARKETPLACE ENDPOINTS (Provider Management)
@@ -30,13 +41,24 @@ public class InsuranceController {
     // 1. Create Plan
     @PostMapping("/plans/add")
     public InsurancePlan createPlan(@RequestBody InsurancePlan plan) {
-        return planRepository.save(plan);
+        InsurancePlan saved = planRepository.save(plan);
+        planCatalog.refresh();
+        return saved;
     }
 
-    // 2. List All Plans
+    // 2. List All Plans (pre-serialised catalog snapshot; If-None-Match with the current ETag -> 304)
     @GetMapping("/plans/all")
-    public List<InsurancePlan> getAllPlans() {
-        return planRepository.findAll();
+    public ResponseEntity<byte[]> getAllPlans(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        PlanCatalog.Snapshot catalog = planCatalog.current();
+        // no-cache: browsers may keep the list but must revalidate it on every page view
+        if (catalog.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.getEtag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(catalog.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(catalog.getJson());
     }
 
     // 3. 🆕 UPDATE PLAN (Missing Feature Added)
@@ -48,7 +70,9 @@ public class InsuranceController {
             plan.setPremium(planDetails.getPremium());
             plan.setBenefits(planDetails.getBenefits());
             // Provider cannot be changed
-            return ResponseEntity.ok(planRepository.save(plan));
+            InsurancePlan saved = planRepository.save(plan);
+            planCatalog.refresh();
+            return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -57,6 +81,7 @@ public class InsuranceController {
     public ResponseEntity<String> deletePlan(@PathVariable Long id) {
         if(planRepository.existsById(id)) {
             planRepository.deleteById(id);
+            planCatalog.refresh();
             return ResponseEntity.ok("Plan deleted successfully");
         }
         return ResponseEntity.notFound().build();
@@ -82,21 +107,37 @@ public class InsuranceController {
         newCard.setPolicyName(plan.getPolicyName());
         newCard.setCoverageAmount(plan.getCoverageAmount());
         newCard.setPremium(plan.getPremium());
-        newCard.setPolicyNumber("POL-" + System.currentTimeMillis());
         newCard.setStatus("ACTIVE");
         newCard.setIssueDate(LocalDate.now()); 
         newCard.setExpiryDate(LocalDate.now().plusYears(1));
 
-        repository.save(newCard);
+        try {
+            service.saveWithNewPolicyNumber(newCard);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Could not issue a unique policy number, please retry");
+        }
         return ResponseEntity.ok("Policy Purchased Successfully! ID: " + newCard.getPolicyNumber());
     }
 
+    // Provider's customers, case-insensitive on the provider name, as lightweight rows.
+    // Keyset paged: sort=expiryDate|status, pass the X-Next-Cursor response header back as ?after=
     @GetMapping("/provider/{providerName}")
-    public List<InsuranceCard> getProviderCustomers(@PathVariable String providerName) {
-        return repository.findAll().stream()
-                .filter(c -> c.getInsuranceProvider() != null && 
-                             c.getInsuranceProvider().equalsIgnoreCase(providerName))
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getProviderCustomers(
+            @PathVariable String providerName,
+            @RequestParam(defaultValue = "expiryDate") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + InsuranceService.DEFAULT_PAGE_SIZE) int size) {
+        CustomerPage page;
+        try {
+            page = service.getProviderCustomers(providerName, sort, after, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     // ==========================================
@@ -105,10 +146,12 @@ public class InsuranceController {
 
     // Update Manual Policy (Already existed, looks good)
     @PutMapping("/update/{id}")
-    public ResponseEntity<InsuranceCard> updatePolicy(@PathVariable Long id, @RequestBody InsuranceCard cardDetails) {
+    public ResponseEntity<?> updatePolicy(@PathVariable Long id, @RequestBody InsuranceCard cardDetails) {
         try {
             InsuranceCard updatedCard = service.updatePolicy(id, cardDetails);
             return ResponseEntity.ok(updatedCard);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Policy number already exists");
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -135,31 +178,17 @@ public class InsuranceController {
 
     @PutMapping("/renew/{policyNumber}")
     public ResponseEntity<?> renewPolicy(@PathVariable String policyNumber) {
-        Optional<InsuranceCard> policyOpt = repository.findAll().stream()
-            .filter(p -> p.getPolicyNumber().equals(policyNumber))
-            .findFirst();
+        Optional<InsuranceCard> policyOpt = service.renewPolicy(policyNumber);
 
         if (policyOpt.isPresent()) {
-            InsuranceCard policy = policyOpt.get();
-            LocalDate today = LocalDate.now();
-            LocalDate currentExpiry = policy.getExpiryDate();
-            LocalDate newExpiry = (currentExpiry == null || currentExpiry.isBefore(today)) 
-                ? today.plusYears(1) : currentExpiry.plusYears(1);
-            
-            policy.setExpiryDate(newExpiry);
-            policy.setStatus("ACTIVE"); 
-            
-            repository.save(policy);
-            return ResponseEntity.ok("Policy Renewed! Status is now ACTIVE until: " + newExpiry);
+            return ResponseEntity.ok("Policy Renewed! Status is now ACTIVE until: " + policyOpt.get().getExpiryDate());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/verify/{policyNumber}")
     public ResponseEntity<?> verifyPolicy(@PathVariable String policyNumber) {
-        Optional<InsuranceCard> policyOpt = repository.findAll().stream()
-            .filter(p -> p.getPolicyNumber().equals(policyNumber))
-            .findFirst();
+        Optional<InsuranceCard> policyOpt = service.verifyPolicy(policyNumber);
 
         if (policyOpt.isPresent()) {
             return ResponseEntity.ok(policyOpt.get());
@@ -167,6 +196,12 @@ public class InsuranceController {
         return ResponseEntity.status(404).body("Policy Not Found");
     }
 
+    // Verification cache hit / miss counts (for sizing policy.verify-cache.*)
+    @GetMapping("/verify-cache/metrics")
+    public Map<String, Object> getVerificationCacheMetrics() {
+        return verificationCache.getMetrics();
+    }
+
     @GetMapping("/user/{userId}")
     public List<InsuranceCard> getUserPolicies(@PathVariable Long userId) {
         // ✅ Uses the efficient Repository method
@@ -174,15 +209,67 @@ public class InsuranceController {
     }
 
     @PostMapping("/manual-entry")
-    public ResponseEntity<InsuranceCard> manualEntry(
+    public ResponseEntity<?> manualEntry(
             @RequestBody ManualEntryRequest request,
             @RequestHeader(value = "Authorization", required = false) String token) {
         Long userId = 1L; // You might want to get this from the request/token later
-        return ResponseEntity.ok(service.saveManualPolicy(request, userId));
+        try {
+            return ResponseEntity.ok(service.saveManualPolicy(request, userId));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Policy number already exists");
+        }
     }
 
     @GetMapping("/list")
     public List<InsuranceCard> listPolicies(@RequestHeader(value = "Authorization", required = false) String token) {
         return repository.findAll();
     }
-}
\ No newline at end of file
+
+    // ==========================================
+    // ⏰ EXPIRY SWEEP & RENEWAL REMINDERS
+    // ==========================================
+
+    // Run (or resume) the expiry sweep now; ?date= replays a business date (default today)
+    @PostMapping("/sweeps/expiry/run")
+    public ResponseEntity<?> runExpirySweep(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(expirySweep.sweep(date != null ? date : LocalDate.now()));
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Expiry sweep is already running on another node");
+        }
+    }
+
+    @GetMapping("/sweeps/expiry")
+    public ResponseEntity<?> getExpirySweep() {
+        SweepCheckpoint checkpoint = expirySweep.getCheckpoint();
+        return checkpoint != null ? ResponseEntity.ok(checkpoint) : ResponseEntity.notFound().build();
+    }
+
+    // ACTIVE cards expiring soon, soonest first. Keyset paged: pass X-Next-Cursor back as ?after=
+    @GetMapping("/renewals/due")
+    public ResponseEntity<?> getRenewalsDue(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + InsuranceService.DEFAULT_PAGE_SIZE) int size) {
+        LocalDate afterExpiry = null;
+        Long afterCardId = null;
+        if (after != null) {
+            try {
+                int sep = after.indexOf('|');
+                afterExpiry = LocalDate.parse(after.substring(0, sep));
+                afterCardId = Long.valueOf(after.substring(sep + 1));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
+        int pageSize = Math.max(1, Math.min(size, InsuranceService.MAX_PAGE_SIZE));
+        List<RenewalDue> due = expirySweep.getRenewalsDue(afterExpiry, afterCardId, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (due.size() == pageSize) {
+            RenewalDue last = due.get(due.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, last.getExpiryDate() + "|" + last.getCardId());
+        }
+        return response.body(due);
+    }
+}
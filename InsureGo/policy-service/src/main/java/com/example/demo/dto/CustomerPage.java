@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class CustomerPage {
+    // One keyset page. nextCursor is the value to pass as 'after' for the next page,
+    // or null when this was the last page.
+
+    private final List<CustomerRow> items;
+    private final String nextCursor;
+
+    public CustomerPage(List<CustomerRow> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CustomerRow> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+// One row of a provider's customer listing (a slice of InsuranceCard, read as a JPQL projection)
+public class CustomerRow {
+
+    private final Long id;
+    private final Long userId;
+    private final String patientName;
+    private final String policyNumber;
+    private final String policyName;
+    private final String status;
+    private final LocalDate expiryDate;
+
+    public CustomerRow(Long id, Long userId, String patientName, String policyNumber, String policyName, String status, LocalDate expiryDate) {
+        this.id = id;
+        this.userId = userId;
+        this.patientName = patientName;
+        this.policyNumber = policyNumber;
+        this.policyName = policyName;
+        this.status = status;
+        this.expiryDate = expiryDate;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getPatientName() { return patientName; }
+    public String getPolicyNumber() { return policyNumber; }
+    public String getPolicyName() { return policyName; }
+    public String getStatus() { return status; }
+    public LocalDate getExpiryDate() { return expiryDate; }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.DocumentBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, String> {
+
+    // Atomic "insert with 1 or add 1" so concurrent uploads of the same content never collide
+    @Modifying
+    @Query(value = "INSERT INTO card_image_blobs (hash, size, ref_count, updated_at) VALUES (:hash, :size, 1, NOW()) "
+        + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW()", nativeQuery = true)
+    void retain(@Param("hash") String hash, @Param("size") long size);
+
+    @Modifying
+    @Query("update DocumentBlob b set b.refCount = b.refCount - 1, b.updatedAt = CURRENT_TIMESTAMP where b.hash = :hash and b.refCount > 0")
+    int release(@Param("hash") String hash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<DocumentBlob> findByRefCountAndUpdatedAtBefore(int refCount, LocalDateTime cutoff);
+}
@@ -2,9 +2,72 @@ package com.example.demo.repository;
 
 
 import com.example.demo.bean.*;
+import com.example.demo.dto.CustomerRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface InsuranceRepository extends JpaRepository<InsuranceCard, Long> {
     List<InsuranceCard> findByUserId(Long userId);
+
+    // Backed by the unique ux_card_policy_number index (PolicyNumberDedupe makes sure it exists);
+    // oldest card first, like the old list lookup, should a duplicate ever get in
+    Optional<InsuranceCard> findFirstByPolicyNumberOrderByIdAsc(String policyNumber);
+
+    // --- Startup dedupe: numbers shared by more than one card (placeholders, old POL-<millis> clashes) ---
+
+    @Query("select c.policyNumber from InsuranceCard c where c.policyNumber is not null "
+        + "group by c.policyNumber having count(c) > 1")
+    List<String> findDuplicatePolicyNumbers();
+
+    List<InsuranceCard> findByPolicyNumberOrderByIdAsc(String policyNumber);
+
+    // Cards written before provider_key existed
+    @Modifying
+    @Transactional
+    @Query("update InsuranceCard c set c.providerKey = lower(trim(c.insuranceProvider)) "
+        + "where c.providerKey is null and c.insuranceProvider is not null")
+    int backfillProviderKeys();
+
+    // --- Expiry sweep: one card id range per call, no entities loaded ---
+
+    @Query("select coalesce(max(c.id), 0) from InsuranceCard c")
+    long findMaxId();
+
+    @Modifying
+    @Query("update InsuranceCard c set c.status = 'EXPIRED' "
+        + "where c.id > :fromId and c.id <= :toId and c.status = 'ACTIVE' and c.expiryDate < :today")
+    int expireCards(@Param("fromId") long fromId, @Param("toId") long toId, @Param("today") LocalDate today);
+
+    // --- Provider customer listing, keyset paged on (provider_key, expiry_date | status, id) ---
+    // Rows without a sort value come first (ordered by id), then the others in (value, id) order.
+
+    String CUSTOMER_ROW = "select new com.example.demo.dto.CustomerRow(c.id, c.userId, c.patientName, c.policyNumber, "
+        + "c.policyName, c.status, c.expiryDate) from InsuranceCard c where c.providerKey = :providerKey ";
+
+    @Query(CUSTOMER_ROW + "and c.expiryDate is null and c.id > :afterId order by c.id")
+    List<CustomerRow> findCustomersWithoutExpiry(@Param("providerKey") String providerKey, @Param("afterId") long afterId, Limit limit);
+
+    @Query(CUSTOMER_ROW + "and c.expiryDate is not null order by c.expiryDate, c.id")
+    List<CustomerRow> findCustomersByExpiry(@Param("providerKey") String providerKey, Limit limit);
+
+    @Query(CUSTOMER_ROW + "and (c.expiryDate, c.id) > (:expiryDate, :afterId) order by c.expiryDate, c.id")
+    List<CustomerRow> findCustomersByExpiryAfter(@Param("providerKey") String providerKey, @Param("expiryDate") LocalDate expiryDate,
+                                                 @Param("afterId") long afterId, Limit limit);
+
+    @Query(CUSTOMER_ROW + "and c.status is null and c.id > :afterId order by c.id")
+    List<CustomerRow> findCustomersWithoutStatus(@Param("providerKey") String providerKey, @Param("afterId") long afterId, Limit limit);
+
+    @Query(CUSTOMER_ROW + "and c.status is not null order by c.status, c.id")
+    List<CustomerRow> findCustomersByStatus(@Param("providerKey") String providerKey, Limit limit);
+
+    @Query(CUSTOMER_ROW + "and (c.status, c.id) > (:status, :afterId) order by c.status, c.id")
+    List<CustomerRow> findCustomersByStatusAfter(@Param("providerKey") String providerKey, @Param("status") String status,
+                                                 @Param("afterId") long afterId, Limit limit);
 }
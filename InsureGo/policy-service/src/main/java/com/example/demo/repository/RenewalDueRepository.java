@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.RenewalDue;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RenewalDueRepository extends JpaRepository<RenewalDue, Long> {
+
+    // --- Sweep: rebuild the entries of one card id range ---
+
+    @Modifying
+    @Query("delete from RenewalDue r where r.cardId > :fromId and r.cardId <= :toId")
+    int deleteByCardIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query("insert into RenewalDue (cardId, policyNumber, userId, patientName, insuranceProvider, expiryDate) "
+        + "select c.id, c.policyNumber, c.userId, c.patientName, c.insuranceProvider, c.expiryDate from InsuranceCard c "
+        + "where c.id > :fromId and c.id <= :toId and c.status = 'ACTIVE' and c.expiryDate >= :today and c.expiryDate <= :until")
+    int enqueueDue(@Param("fromId") long fromId, @Param("toId") long toId,
+                   @Param("today") LocalDate today, @Param("until") LocalDate until);
+
+    // Renewed, edited or deleted card: its entry (if any) no longer holds
+    @Modifying
+    @Transactional
+    @Query("delete from RenewalDue r where r.cardId = :cardId")
+    int dropCard(@Param("cardId") Long cardId);
+
+    // --- Reminders: keyset pages in (expiryDate, cardId) order ---
+
+    List<RenewalDue> findAllByOrderByExpiryDateAscCardIdAsc(Limit limit);
+
+    @Query("select r from RenewalDue r where (r.expiryDate, r.cardId) > (:expiryDate, :afterId) order by r.expiryDate, r.cardId")
+    List<RenewalDue> findDueAfter(@Param("expiryDate") LocalDate expiryDate, @Param("afterId") long afterId, Limit limit);
+}
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.bean.SweepCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SweepCheckpointRepository extends JpaRepository<SweepCheckpoint, String> {
+}
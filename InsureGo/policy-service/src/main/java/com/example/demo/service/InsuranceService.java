@@ -1,29 +1,58 @@
 package com.example.demo.service;
 
 import com.example.demo.bean.InsuranceCard;
+import com.example.demo.dto.CustomerPage;
+import com.example.demo.dto.CustomerRow;
 import com.example.demo.dto.ManualEntryRequest;
 import com.example.demo.repository.InsuranceRepository;
+import com.example.demo.repository.RenewalDueRepository;
+import com.example.demo.util.SnowflakeIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Service
 public class InsuranceService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    static final int POLICY_NUMBER_ATTEMPTS = 3;
+
     @Autowired
     private InsuranceRepository repository;
 
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private PolicyVerificationCache verificationCache;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private RenewalDueRepository renewalRepository;
+
     // --- 1. MANUAL ENTRY (The Main Feature) ---
     public InsuranceCard saveManualPolicy(ManualEntryRequest request, Long userId) {
         InsuranceCard card = new InsuranceCard();
         
         // Core Mapping
         card.setUserId(userId);
-        card.setPolicyNumber(request.getPolicyNumber()); 
+        // Policies linked from another insurer keep their number; otherwise we issue one
+        boolean hasNumber = request.getPolicyNumber() != null && !request.getPolicyNumber().isBlank();
+        if (hasNumber) card.setPolicyNumber(request.getPolicyNumber().trim());
         card.setInsuranceProvider(request.getInsuranceProvider());
         card.setPolicyName(request.getPolicyName());
         card.setCoverageAmount(request.getCoverageAmount());
@@ -47,32 +76,43 @@ public class InsuranceService {
         
         card.setUploadedAt(LocalDateTime.now());
 
-        return repository.save(card);
+        return hasNumber ? repository.save(card) : saveWithNewPolicyNumber(card);
     }
 
     // --- 2. FILE UPLOAD (OCR Placeholder) ---
-    public InsuranceCard processCardUpload(MultipartFile file, Long userId) {
+    public InsuranceCard processCardUpload(MultipartFile file, Long userId) throws IOException {
         InsuranceCard card = new InsuranceCard();
         card.setUserId(userId);
         
         // FIX: Status is now a String, not an Enum
         card.setStatus("PENDING"); 
         
+        // Deduplicated by content: the same card image uploaded twice is stored once
+        String fileRef = storageService.storePermanently(file);
+        card.setFileUri(fileRef);
+
         // Set Dummy Data for now
-        card.setFileUri("http://via.placeholder.com/150"); 
         card.setInsuranceProvider("Processing...");
-        card.setPolicyNumber("PENDING");
+        // Policy numbers are unique; a placeholder until the card is read
+        card.setPolicyNumber(newPlaceholderNumber());
         card.setPatientName("Processing...");
         card.setExpiryDate(LocalDate.now().plusYears(1));
         card.setUploadedAt(LocalDateTime.now());
 
-        return repository.save(card);
+        try {
+            return repository.save(card);
+        } catch (RuntimeException e) {
+            // No card points at the blob; give its count back so the sweeper can reclaim it
+            storageService.release(fileRef);
+            throw e;
+        }
     }
 
     // --- 3. UPDATE POLICY ---
     public InsuranceCard updatePolicy(Long id, InsuranceCard cardDetails) {
         InsuranceCard existingCard = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Card not found with id: " + id));
+        String oldPolicyNumber = existingCard.getPolicyNumber();
 
         // Update all fields allowed to be edited
         existingCard.setInsuranceProvider(cardDetails.getInsuranceProvider());
@@ -83,12 +123,135 @@ public class InsuranceService {
         existingCard.setIssueDate(cardDetails.getIssueDate());
         existingCard.setCoverageAmount(cardDetails.getCoverageAmount());
 
-        return repository.save(existingCard);
+        InsuranceCard saved = repository.save(existingCard);
+        verificationCache.invalidate(oldPolicyNumber);
+        // The next expiry sweep re-queues it if the new expiry date is due
+        renewalRepository.dropCard(id);
+        return saved;
     }
 
     // --- 4. DELETE POLICY ---
     public void deletePolicy(Long id) {
+        Optional<InsuranceCard> card = repository.findById(id);
+        card.ifPresent(c -> storageService.release(c.getFileUri()));
         repository.deleteById(id);
+        renewalRepository.dropCard(id);
+        card.ifPresent(c -> verificationCache.invalidate(c.getPolicyNumber()));
+    }
+
+    // --- 6. VERIFY (doctor check-in; served from the verification cache) ---
+    public Optional<InsuranceCard> verifyPolicy(String policyNumber) {
+        return verificationCache.get(policyNumber, repository::findFirstByPolicyNumberOrderByIdAsc);
+    }
+
+    // --- 7. RENEW (one more year from the current expiry, or from today if already expired) ---
+    public Optional<InsuranceCard> renewPolicy(String policyNumber) {
+        Optional<InsuranceCard> renewed = repository.findFirstByPolicyNumberOrderByIdAsc(policyNumber).map(policy -> {
+            LocalDate today = LocalDate.now();
+            LocalDate currentExpiry = policy.getExpiryDate();
+            LocalDate newExpiry = (currentExpiry == null || currentExpiry.isBefore(today))
+                ? today.plusYears(1) : currentExpiry.plusYears(1);
+
+            policy.setExpiryDate(newExpiry);
+            policy.setStatus("ACTIVE");
+            InsuranceCard saved = repository.save(policy);
+            renewalRepository.dropCard(saved.getId());
+            return saved;
+        });
+        verificationCache.invalidate(policyNumber);
+        return renewed;
+    }
+
+    // Unique across nodes and purchases in the same millisecond, e.g. "POL-3K7Q0ZB9X1M2A"
+    public String newPolicyNumber() {
+        return "POL-" + nextToken();
+    }
+
+    // Stand-in number for a card whose real number is not known yet
+    public String newPlaceholderNumber() {
+        return "PENDING-" + nextToken();
+    }
+
+    // Saves a new card under a freshly issued policy number. A clash on the unique index (two nodes on
+    // the same node id, or a restart inside the generator's borrow window) is retried with a new number.
+    public InsuranceCard saveWithNewPolicyNumber(InsuranceCard card) {
+        for (int attempt = 1; ; attempt++) {
+            card.setPolicyNumber(newPolicyNumber());
+            try {
+                return repository.save(card);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= POLICY_NUMBER_ATTEMPTS) throw e;
+                System.err.println("Policy number " + card.getPolicyNumber() + " rejected, issuing a new one: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    // The generator's id is time-ordered; scrambling it with a fixed 64-bit bijection keeps it unique
+    // while the number no longer reads as a purchase timestamp
+    private String nextToken() {
+        long x = idGenerator.nextId();
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        x = x ^ (x >>> 31);
+        String token = Long.toUnsignedString(x, 36).toUpperCase(Locale.ROOT);
+        return "0".repeat(13 - token.length()) + token;
+    }
+
+    // --- 8. PROVIDER CUSTOMERS (case-insensitive provider, keyset paged by expiryDate or status) ---
+    // The cursor is "-|<id>" while paging rows without a sort value, then "<value>|<id>".
+    public CustomerPage getProviderCustomers(String providerName, String sort, String after, int size) {
+        boolean byStatus;
+        if ("status".equalsIgnoreCase(sort)) {
+            byStatus = true;
+        } else if ("expiryDate".equalsIgnoreCase(sort)) {
+            byStatus = false;
+        } else {
+            throw new IllegalArgumentException("sort must be expiryDate or status");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String key = InsuranceCard.providerKeyOf(providerName);
+
+        String afterValue = null;
+        long afterId = 0;
+        if (after != null) {
+            int sep = after.lastIndexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Invalid cursor");
+            try {
+                afterId = Long.parseLong(after.substring(sep + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String value = after.substring(0, sep);
+            afterValue = value.equals("-") ? null : value;
+        }
+
+        // One extra row tells whether there is a next page
+        List<CustomerRow> rows = new ArrayList<>(pageSize + 1);
+        if (afterValue == null) {
+            rows.addAll(byStatus
+                ? repository.findCustomersWithoutStatus(key, afterId, Limit.of(pageSize + 1))
+                : repository.findCustomersWithoutExpiry(key, afterId, Limit.of(pageSize + 1)));
+            if (rows.size() <= pageSize) {
+                Limit rest = Limit.of(pageSize + 1 - rows.size());
+                rows.addAll(byStatus ? repository.findCustomersByStatus(key, rest) : repository.findCustomersByExpiry(key, rest));
+            }
+        } else if (byStatus) {
+            rows.addAll(repository.findCustomersByStatusAfter(key, afterValue, afterId, Limit.of(pageSize + 1)));
+        } else {
+            LocalDate expiry;
+            try {
+                expiry = LocalDate.parse(afterValue);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows.addAll(repository.findCustomersByExpiryAfter(key, expiry, afterId, Limit.of(pageSize + 1)));
+        }
+
+        if (rows.size() <= pageSize) return new CustomerPage(rows, null);
+        List<CustomerRow> page = rows.subList(0, pageSize);
+        CustomerRow last = page.get(pageSize - 1);
+        Object value = byStatus ? last.getStatus() : last.getExpiryDate();
+        return new CustomerPage(page, (value == null ? "-" : value.toString()) + "|" + last.getId());
     }
 
     // --- 5. GET LIST ---
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.InsurancePlan;
+import com.example.demo.repository.InsurancePlanRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+// The marketplace plan list as one immutable snapshot: the JSON body is serialised once and its ETag is
+// a hash of that body, so every node serves the same ETag for the same catalog (plans are read in id order,
+// findAll() has none). Reads never touch the DB; plan writes on this node (and the periodic reload, for
+// writes made elsewhere) swap in a new snapshot.
+@Service
+public class PlanCatalog {
+
+    @Autowired
+    private InsurancePlanRepository planRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    // Call after every plan write; an unchanged catalog keeps its snapshot (and ETag)
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${policy.plans.reload-ms:60000}")
+    public synchronized Snapshot refresh() {
+        Snapshot next = Snapshot.of(planRepository.findAll(Sort.by("id")), objectMapper);
+        Snapshot current = snapshot;
+        if (current == null || !current.etag.equals(next.etag)) snapshot = next;
+        return snapshot;
+    }
+
+    public static final class Snapshot {
+        private final byte[] json;
+        private final String etag;
+        private final int size;
+
+        private Snapshot(byte[] json, String etag, int size) {
+            this.json = json;
+            this.etag = etag;
+            this.size = size;
+        }
+
+        public static Snapshot of(List<InsurancePlan> plans, ObjectMapper objectMapper) {
+            byte[] json = objectMapper.writeValueAsBytes(plans);
+            return new Snapshot(json, "\"" + HexFormat.of().formatHex(sha256(json), 0, 16) + "\"", plans.size());
+        }
+
+        // Shared, never modified: write it out as is
+        public byte[] getJson() { return json; }
+        public String getEtag() { return etag; }
+        public int getSize() { return size; }
+
+        // If-None-Match: "*", or a comma-separated list of (possibly weak) ETags
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) return false;
+            return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+
+        private static byte[] sha256(byte[] data) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(data);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.RenewalDue;
+import com.example.demo.bean.SweepCheckpoint;
+import com.example.demo.repository.InsuranceRepository;
+import com.example.demo.repository.RenewalDueRepository;
+import com.example.demo.repository.SweepCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Nightly pass over the card table in id-range chunks (one transaction each, nothing loaded into memory):
+//  - ACTIVE cards whose expiryDate has passed become EXPIRED (one bulk UPDATE per chunk)
+//  - the renewal_due entries of the chunk are rebuilt from the ACTIVE cards expiring within due-days
+// Each chunk commits together with the checkpoint, so a restarted run resumes after the last chunk.
+@Service
+public class PolicyExpirySweep {
+
+    static final String CHECKPOINT = "policy-expiry";
+
+    @Autowired private InsuranceRepository repository;
+    @Autowired private RenewalDueRepository renewalRepository;
+    @Autowired private SweepCheckpointRepository checkpointRepository;
+    @Autowired private PolicyVerificationCache verificationCache;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${policy.expiry.chunk-size:5000}")
+    private int chunkSize = 5000;
+    @Value("${policy.renewal.due-days:30}")
+    private int dueDays = 30;
+
+    @Scheduled(cron = "${policy.expiry.cron:0 15 0 * * *}")
+    public void sweepNightly() {
+        try {
+            sweep(LocalDate.now());
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            System.out.println("Expiry sweep is running on another node");
+        }
+    }
+
+    // Runs (or resumes) the sweep for 'today'; a run that already completed for that date is returned as is
+    public synchronized SweepCheckpoint sweep(LocalDate today) {
+        SweepCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT).orElseGet(() -> new SweepCheckpoint(CHECKPOINT));
+        if (!today.equals(checkpoint.getRunDate())) {
+            // Cards created after this point start ACTIVE with a future expiry; tomorrow's run covers them
+            checkpoint.start(today, repository.findMaxId());
+        } else if (checkpoint.isCompleted()) {
+            return checkpoint;
+        }
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        LocalDate until = today.plusDays(dueDays);
+        while (checkpoint.getLastId() < checkpoint.getMaxId()) {
+            long fromId = checkpoint.getLastId();
+            long toId = Math.min(fromId + chunkSize, checkpoint.getMaxId());
+            SweepCheckpoint current = checkpoint;
+            int[] expired = new int[1];
+            checkpoint = transactionTemplate.execute(status -> {
+                expired[0] = repository.expireCards(fromId, toId, today);
+                renewalRepository.deleteByCardIdRange(fromId, toId);
+                int due = renewalRepository.enqueueDue(fromId, toId, today, until);
+                current.advance(toId, expired[0], due);
+                return checkpointRepository.save(current);
+            });
+            if (expired[0] > 0) verificationCache.invalidateAll();
+        }
+
+        checkpoint.complete();
+        return checkpointRepository.save(checkpoint);
+    }
+
+    public SweepCheckpoint getCheckpoint() {
+        return checkpointRepository.findById(CHECKPOINT).orElse(null);
+    }
+
+    // Renewal reminders, soonest expiry first; 'after' is the last row of the previous page
+    public List<RenewalDue> getRenewalsDue(LocalDate afterExpiry, Long afterCardId, int size) {
+        Limit limit = Limit.of(size);
+        if (afterExpiry == null || afterCardId == null) {
+            return renewalRepository.findAllByOrderByExpiryDateAscCardIdAsc(limit);
+        }
+        return renewalRepository.findDueAfter(afterExpiry, afterCardId, limit);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.InsuranceCard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Recently verified policies, by policyNumber (doctors verify a patient's policy at every check-in).
+// Bounded to about max-size entries, each trusted for ttl-ms. Only found policies are cached, so a new
+// policy never hides behind a cached "not found". Renew / update / delete invalidate their entry; a
+// lookup that raced with an invalidation is returned but not cached.
+// Reads take no lock: entries sit in a ConcurrentHashMap with their load time and an approximate last
+// access time. Going over max-size, one writer at a time evicts expired entries and then the least
+// recently used ones in a batch, so eviction is not paid on every insert.
+@Component
+public class PolicyVerificationCache {
+
+    // Last-access times are only refreshed this often, so hot entries are not written on every hit
+    static final long TOUCH_NS = 1_000_000L;
+
+    @Value("${policy.verify-cache.max-size:10000}")
+    private int maxSize = 10000;
+    @Value("${policy.verify-cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public Optional<InsuranceCard> get(String policyNumber, Function<String, Optional<InsuranceCard>> loader) {
+        return get(policyNumber, loader, System.nanoTime());
+    }
+
+    Optional<InsuranceCard> get(String policyNumber, Function<String, Optional<InsuranceCard>> loader, long now) {
+        Entry entry = entries.get(policyNumber);
+        if (entry != null && !isExpired(entry, now)) {
+            if (now - entry.lastAccess > TOUCH_NS) entry.lastAccess = now;
+            hits.increment();
+            return Optional.of(entry.card);
+        }
+        if (entry != null && entries.remove(policyNumber, entry)) {
+            expired.increment();
+        }
+        misses.increment();
+
+        long stamp = invalidations.get();
+        Optional<InsuranceCard> card = loader.apply(policyNumber);
+        card.ifPresent(c -> put(policyNumber, c, stamp, now));
+        return card;
+    }
+
+    // Counter first, then the entry: a put() that missed the new count is still removed here
+    public void invalidate(String policyNumber) {
+        if (policyNumber == null) return;
+        invalidations.incrementAndGet();
+        entries.remove(policyNumber);
+    }
+
+    // Bulk status changes (expiry sweep) do not know which numbers they touched
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Object> getMetrics() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("hits", h);
+        metrics.put("misses", m);
+        metrics.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        metrics.put("expired", expired.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("size", entries.size());
+        metrics.put("maxSize", maxSize);
+        return metrics;
+    }
+
+    private void put(String policyNumber, InsuranceCard card, long stamp, long loadedAt) {
+        // Renewed / edited / deleted while we were reading the DB: the copy we hold may be stale
+        if (invalidations.get() != stamp) return;
+        Entry entry = new Entry(card, loadedAt);
+        entries.put(policyNumber, entry);
+        // Re-checked after the write, so an invalidation between the two checks cannot leave it behind
+        if (invalidations.get() != stamp) {
+            entries.remove(policyNumber, entry);
+            return;
+        }
+        if (entries.size() > maxSize) evict(loadedAt);
+    }
+
+    // Down to 90% of max-size: expired entries first, then the least recently used
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) return; // another thread is making room
+        try {
+            List<Map.Entry<String, Entry>> live = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (!isExpired(e.getValue(), now)) {
+                    live.add(e);
+                } else if (entries.remove(e.getKey(), e.getValue())) {
+                    expired.increment();
+                }
+            }
+            int excess = entries.size() - (maxSize - Math.max(1, maxSize / 10));
+            if (excess <= 0) return;
+            live.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (int i = 0; i < live.size() && excess > 0; i++) {
+                if (entries.remove(live.get(i).getKey(), live.get(i).getValue())) {
+                    evictions.increment();
+                    excess--;
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.loadedAt >= ttlMs * 1_000_000L;
+    }
+
+    private static final class Entry {
+        final InsuranceCard card;
+        final long loadedAt;
+        volatile long lastAccess;
+
+        Entry(InsuranceCard card, long loadedAt) {
+            this.card = card;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -1,22 +1,77 @@
 package com.example.demo.service;
 
+import com.example.blobstore.BlobCounts;
+import com.example.blobstore.BlobStore;
+import com.example.demo.bean.DocumentBlob;
+import com.example.demo.repository.DocumentBlobRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.List;
 
+// Content-addressed card image storage: files are keyed by their SHA-256 (computed while streaming),
+// so a card uploaded again costs no extra disk. Layout: uploads/sha256/<aa>/<bb>/<hash>.
+// The store itself is the shared blob-store BlobStore (same code as claim-service documents);
+// this adds the transactions and counts references in card_image_blobs.
 @Service
 public class StorageService {
     
-    private final Path uploadDir = Paths.get("uploads");
-
-    public String storePermanently(MultipartFile file, Long userId) throws IOException {
-        Files.createDirectories(uploadDir);
-        // Create unique filename: userId_uuid_filename
-        String uniqueFileName = userId + "_" + UUID.randomUUID() + "_" + file.getOriginalFilename();
-        Path filePath = this.uploadDir.resolve(uniqueFileName);
-        file.transferTo(filePath);
-        return filePath.toString(); 
+    public static final String PREFIX = BlobStore.PREFIX;
+    private final Path blobDir = Paths.get("uploads").resolve("sha256");
+
+    @Autowired
+    private DocumentBlobRepository blobRepository;
+
+    private BlobStore store;
+
+    @PostConstruct
+    void init() {
+        store = new BlobStore(blobDir, new BlobCounts() {
+            @Override
+            public void retain(String hash, long size) { blobRepository.retain(hash, size); }
+
+            @Override
+            public void release(String hash) { blobRepository.release(hash); }
+
+            @Override
+            public List<String> lockUnreferenced(LocalDateTime cutoff) {
+                return blobRepository.findByRefCountAndUpdatedAtBefore(0, cutoff).stream().map(DocumentBlob::getHash).toList();
+            }
+
+            @Override
+            public void delete(String hash) { blobRepository.deleteById(hash); }
+        });
+    }
+
+    // Returns the reference to store on the card ("sha256/<aa>/<bb>/<hash>"), counted once
+    @Transactional
+    public String storePermanently(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store.put(in);
+        }
+    }
+
+    // Drops one reference (no-op for legacy or placeholder URIs)
+    @Transactional
+    public void release(String reference) {
+        store.release(reference);
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    @Transactional
+    public void sweepUnreferenced() throws IOException {
+        store.sweepUnreferenced(LocalDateTime.now().minusHours(1));
+    }
+
+    // null for legacy (non content-addressed) paths and placeholders
+    public static String hashOf(String reference) {
+        return BlobStore.hashOf(reference);
     }
 }
@@ -0,0 +1,77 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Snowflake-style 63-bit ids: 41 bits of milliseconds since EPOCH_MS | 10 bits node | 12 bits sequence,
+// unique across nodes as long as every node has its own nodeId. Up to 4096 ids per millisecond per node.
+// The (millisecond, sequence) pair lives in one AtomicLong advanced by CAS, so callers never lock.
+// When the sequence runs out or the wall clock steps back, the logical clock runs ahead of it (borrowing
+// from the next milliseconds) instead of waiting; past MAX_BORROW_MS callers spin until the clock catches
+// up, and a clock that is more than MAX_BACKWARD_MS behind is refused rather than risking duplicates.
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MS = 1735689600000L; // 2025-01-01T00:00:00Z
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    static final long MAX_BORROW_MS = 1000;
+    static final long MAX_BACKWARD_MS = 10000;
+
+    private final long node;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH_MS << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong last;
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        this.last = new AtomicLong((clock.getAsLong() - EPOCH_MS) << SEQUENCE_BITS);
+    }
+
+    public long nextId() {
+        while (true) {
+            long prev = last.get();
+            long prevMs = prev >>> SEQUENCE_BITS;
+            long nowMs = clock.getAsLong() - EPOCH_MS;
+
+            long next;
+            if (nowMs > prevMs) {
+                next = nowMs << SEQUENCE_BITS;
+            } else {
+                long behind = prevMs - nowMs;
+                if (behind > MAX_BACKWARD_MS) {
+                    throw new IllegalStateException("Clock moved backwards by " + behind + " ms; refusing to generate ids");
+                }
+                if (behind >= MAX_BORROW_MS) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // Same (or an earlier) millisecond: next sequence, overflowing into the next millisecond
+                next = prev + 1;
+            }
+            if (last.compareAndSet(prev, next)) {
+                long ms = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return (ms << (NODE_BITS + SEQUENCE_BITS)) | node | sequence;
+            }
+        }
+    }
+
+    // Milliseconds since the epoch at which an id was generated (logical clock, see above)
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
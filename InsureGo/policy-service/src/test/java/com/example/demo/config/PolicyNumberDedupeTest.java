@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import com.example.demo.bean.InsuranceCard;
+import com.example.demo.repository.InsuranceRepository;
+import com.example.demo.service.InsuranceService;
+import com.example.demo.service.PolicyVerificationCache;
+import com.example.demo.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PolicyNumberDedupeTest {
+
+	private final List<InsuranceCard> cards = new ArrayList<>();
+	private final InsuranceRepository repository = mock(InsuranceRepository.class);
+	private final InsuranceService service = new InsuranceService();
+	private final PolicyNumberDedupe dedupe = new PolicyNumberDedupe();
+
+	PolicyNumberDedupeTest() {
+		// The card table as the repository would see it, without the unique index
+		when(repository.findByPolicyNumberOrderByIdAsc(anyString())).thenAnswer(call -> cards.stream()
+			.filter(c -> Objects.equals(c.getPolicyNumber(), call.getArgument(0)))
+			.sorted(Comparator.comparing(InsuranceCard::getId)).toList());
+		when(repository.findFirstByPolicyNumberOrderByIdAsc(anyString())).thenAnswer(call ->
+			repository.findByPolicyNumberOrderByIdAsc(call.getArgument(0)).stream().findFirst());
+		when(repository.findDuplicatePolicyNumbers()).thenAnswer(call -> cards.stream()
+			.map(InsuranceCard::getPolicyNumber).filter(Objects::nonNull).distinct()
+			.filter(n -> cards.stream().filter(c -> n.equals(c.getPolicyNumber())).count() > 1).toList());
+		when(repository.save(any(InsuranceCard.class))).thenAnswer(call -> call.getArgument(0));
+
+		ReflectionTestUtils.setField(service, "repository", repository);
+		ReflectionTestUtils.setField(service, "verificationCache", new PolicyVerificationCache());
+		ReflectionTestUtils.setField(service, "idGenerator", new SnowflakeIdGenerator(1));
+		ReflectionTestUtils.setField(dedupe, "repository", repository);
+		ReflectionTestUtils.setField(dedupe, "service", service);
+	}
+
+	private void card(long id, String policyNumber, String status) {
+		InsuranceCard card = new InsuranceCard();
+		card.setId(id);
+		card.setPolicyNumber(policyNumber);
+		card.setStatus(status);
+		cards.add(card);
+	}
+
+	@Test
+	void twoCardsWithTheSameNumberVerifyAsTheOldestUntilTheSecondIsRenumbered() {
+		card(1, "POL-1700000000000", "ACTIVE");
+		card(2, "POL-1700000000000", "EXPIRED");
+		card(3, "PENDING", "PENDING");
+		card(4, "PENDING", "PENDING");
+		card(5, "POL-1700000000001", "ACTIVE");
+
+		// Before the migration has run: the first match, not an error
+		assertThat(service.verifyPolicy("POL-1700000000000")).hasValueSatisfying(c -> assertThat(c.getId()).isEqualTo(1L));
+
+		assertThat(dedupe.renumberDuplicates()).isEqualTo(2);
+
+		assertThat(cards.get(0).getPolicyNumber()).isEqualTo("POL-1700000000000");
+		assertThat(cards.get(1).getPolicyNumber()).startsWith("POL-").isNotEqualTo("POL-1700000000000");
+		assertThat(cards.get(2).getPolicyNumber()).isEqualTo("PENDING");
+		assertThat(cards.get(3).getPolicyNumber()).startsWith("PENDING-");
+		assertThat(cards.get(4).getPolicyNumber()).isEqualTo("POL-1700000000001");
+		assertThat(repository.findDuplicatePolicyNumbers()).isEmpty();
+
+		// The renumbered card verifies under its new number
+		assertThat(service.verifyPolicy(cards.get(1).getPolicyNumber())).hasValueSatisfying(c -> assertThat(c.getId()).isEqualTo(2L));
+		assertThat(dedupe.renumberDuplicates()).isZero();
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.InsurancePlan;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanCatalogTest {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+	private static InsurancePlan plan(long id, String name, double premium) {
+		InsurancePlan plan = new InsurancePlan();
+		plan.setId(id);
+		plan.setPolicyName(name);
+		plan.setProvider("Acme");
+		plan.setPremium(premium);
+		return plan;
+	}
+
+	@Test
+	void etagFollowsTheSerialisedCatalog() {
+		PlanCatalog.Snapshot first = PlanCatalog.Snapshot.of(List.of(plan(1, "Gold", 120)), objectMapper);
+		PlanCatalog.Snapshot same = PlanCatalog.Snapshot.of(List.of(plan(1, "Gold", 120)), objectMapper);
+		PlanCatalog.Snapshot repriced = PlanCatalog.Snapshot.of(List.of(plan(1, "Gold", 135)), objectMapper);
+
+		assertThat(new String(first.getJson(), StandardCharsets.UTF_8)).contains("\"policyName\":\"Gold\"");
+		assertThat(same.getEtag()).isEqualTo(first.getEtag());
+		assertThat(repriced.getEtag()).isNotEqualTo(first.getEtag());
+	}
+
+	@Test
+	void matchesIfNoneMatchLists() {
+		PlanCatalog.Snapshot catalog = PlanCatalog.Snapshot.of(List.of(plan(1, "Gold", 120)), objectMapper);
+
+		assertThat(catalog.matches(null)).isFalse();
+		assertThat(catalog.matches("\"stale\"")).isFalse();
+		assertThat(catalog.matches(catalog.getEtag())).isTrue();
+		assertThat(catalog.matches("\"stale\", W/" + catalog.getEtag())).isTrue();
+		assertThat(catalog.matches("*")).isTrue();
+	}
+}
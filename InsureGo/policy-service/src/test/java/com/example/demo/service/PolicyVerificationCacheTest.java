@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.bean.InsuranceCard;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PolicyVerificationCacheTest {
+
+	private static InsuranceCard card(String policyNumber, String status) {
+		InsuranceCard card = new InsuranceCard();
+		card.setPolicyNumber(policyNumber);
+		card.setStatus(status);
+		return card;
+	}
+
+	@Test
+	void servesRepeatedVerificationsFromMemoryUntilInvalidated() {
+		PolicyVerificationCache cache = new PolicyVerificationCache();
+		AtomicInteger loads = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(cache.get("POL-1", n -> { loads.incrementAndGet(); return Optional.of(card(n, "EXPIRED")); }))
+				.hasValueSatisfying(c -> assertThat(c.getStatus()).isEqualTo("EXPIRED"));
+		}
+		assertThat(loads).hasValue(1);
+
+		cache.invalidate("POL-1"); // renewed
+		assertThat(cache.get("POL-1", n -> { loads.incrementAndGet(); return Optional.of(card(n, "ACTIVE")); }))
+			.hasValueSatisfying(c -> assertThat(c.getStatus()).isEqualTo("ACTIVE"));
+		assertThat(loads).hasValue(2);
+
+		// Unknown numbers are not cached: the policy may be bought a moment later
+		assertThat(cache.get("POL-2", n -> Optional.empty())).isEmpty();
+		assertThat(cache.get("POL-2", n -> Optional.of(card(n, "ACTIVE")))).isPresent();
+
+		assertThat(cache.getMetrics()).containsEntry("hits", 2L).containsEntry("misses", 4L).containsEntry("size", 2);
+	}
+
+	@Test
+	void doesNotCacheALookupThatRacedWithAnInvalidation() {
+		PolicyVerificationCache cache = new PolicyVerificationCache();
+		// The renew commits (and invalidates) while this lookup is reading the old row
+		cache.get("POL-1", n -> { cache.invalidate(n); return Optional.of(card(n, "EXPIRED")); });
+
+		assertThat(cache.get("POL-1", n -> Optional.of(card(n, "ACTIVE"))))
+			.hasValueSatisfying(c -> assertThat(c.getStatus()).isEqualTo("ACTIVE"));
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntriesWhenFull() {
+		PolicyVerificationCache cache = new PolicyVerificationCache();
+		ReflectionTestUtils.setField(cache, "maxSize", 10);
+		long ms = 1_000_000L;
+		for (int i = 0; i < 10; i++) {
+			cache.get("POL-" + i, n -> Optional.of(card(n, "ACTIVE")), i * ms);
+		}
+		// POL-0..4 verified again later; POL-5 and POL-6 are now the least recently used
+		for (int i = 0; i < 5; i++) {
+			cache.get("POL-" + i, n -> { throw new AssertionError("should be cached"); }, 100 * ms);
+		}
+
+		cache.get("POL-10", n -> Optional.of(card(n, "ACTIVE")), 101 * ms);
+
+		assertThat(cache.getMetrics()).containsEntry("size", 9).containsEntry("evictions", 2L);
+		AtomicInteger loads = new AtomicInteger();
+		for (String number : new String[] { "POL-0", "POL-4", "POL-7", "POL-10" }) {
+			cache.get(number, n -> { loads.incrementAndGet(); return Optional.of(card(n, "ACTIVE")); }, 102 * ms);
+		}
+		assertThat(loads).hasValue(0);
+		cache.get("POL-5", n -> { loads.incrementAndGet(); return Optional.of(card(n, "ACTIVE")); }, 102 * ms);
+		assertThat(loads).hasValue(1);
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+	@Test
+	void generatesUniqueIncreasingIdsAcrossThreads() throws Exception {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+		int threads = 8;
+		int perThread = 500_000;
+		long[][] ids = new long[threads][perThread];
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				long[] mine = ids[t];
+				futures[t] = pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < perThread; i++) mine[i] = generator.nextId();
+					return null;
+				});
+			}
+			start.countDown();
+			for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		long[] all = new long[threads * perThread];
+		for (int t = 0; t < threads; t++) {
+			System.arraycopy(ids[t], 0, all, t * perThread, perThread);
+			// Each thread sees strictly increasing ids
+			for (int i = 1; i < perThread; i++) assertThat(ids[t][i]).isGreaterThan(ids[t][i - 1]);
+		}
+		Arrays.sort(all);
+		for (int i = 1; i < all.length; i++) {
+			if (all[i] == all[i - 1]) throw new AssertionError("Duplicate id " + all[i]);
+		}
+		assertThat(SnowflakeIdGenerator.nodeOf(all[0])).isEqualTo(42);
+	}
+
+	@Test
+	void keepsIdsIncreasingWhenTheClockStepsBackAndRefusesLargeJumps() {
+		AtomicLong now = new AtomicLong(SnowflakeIdGenerator.EPOCH_MS + 1_000_000);
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, now::get);
+
+		long first = generator.nextId();
+		now.addAndGet(-500); // NTP correction
+		long second = generator.nextId();
+		assertThat(second).isGreaterThan(first);
+		assertThat(SnowflakeIdGenerator.timestampOf(second)).isEqualTo(SnowflakeIdGenerator.timestampOf(first));
+
+		// A full millisecond of sequence numbers borrows the next millisecond
+		long previous = second;
+		for (int i = 0; i < 1 << SnowflakeIdGenerator.SEQUENCE_BITS; i++) {
+			long id = generator.nextId();
+			assertThat(id).isGreaterThan(previous);
+			previous = id;
+		}
+		assertThat(SnowflakeIdGenerator.timestampOf(previous)).isEqualTo(SnowflakeIdGenerator.timestampOf(first) + 1);
+
+		now.addAndGet(-SnowflakeIdGenerator.MAX_BACKWARD_MS);
+		assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+	}
+}
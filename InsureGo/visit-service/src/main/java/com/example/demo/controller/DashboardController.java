@@ -44,7 +44,7 @@ public class DashboardController {
         stats.put("totalPatients", completedAppts);
 
         // B. REMOTE DATA: Claims Revenue
-        String claimsServiceUrl = "http://localhost:8082/claim/doctor-stats/" + doctorId; 
+        String claimsServiceUrl = "http://CLAIM-SERVICE/claim/doctor-stats/" + doctorId; 
         try {
             Map<String, Object> claimData = restTemplate.getForObject(claimsServiceUrl, Map.class);
             if (claimData != null) {